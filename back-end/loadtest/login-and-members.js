@@ -0,0 +1,53 @@
+// So sánh p99 và thông lượng của /auth/login và danh sách thành viên giữa platform thread và virtual thread.
+// Chạy: khởi động ứng dụng với SPRING_THREADS_VIRTUAL_ENABLED=false rồi =true, mỗi lần chạy
+//   k6 run -e BASE_URL=http://localhost:8080/api/v1 loadtest/login-and-members.js
+// và so sánh http_req_duration{name:login|members} p(99) cùng http_reqs trong phần tổng kết.
+// Tắt giới hạn đăng nhập khi đo (SECURITY_RATE_LIMIT_ENABLED=false), nếu không hầu hết request login trả về 429.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080/api/v1';
+const USERNAME = __ENV.USERNAME || 'admin';
+const PASSWORD = __ENV.PASSWORD || 'admin@123456';
+
+export const options = {
+    scenarios: {
+        login: {
+            executor: 'constant-arrival-rate',
+            exec: 'login',
+            rate: Number(__ENV.LOGIN_RATE || 50),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+        },
+        members: {
+            executor: 'constant-arrival-rate',
+            exec: 'members',
+            rate: Number(__ENV.MEMBERS_RATE || 500),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/auth/login`, JSON.stringify({ username: USERNAME, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    return { token: res.json('data.accessToken') };
+}
+
+export function login() {
+    const res = http.post(`${BASE_URL}/auth/login`, JSON.stringify({ username: USERNAME, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' }, tags: { name: 'login' } });
+    check(res, { 'login 200': (r) => r.status === 200 });
+}
+
+export function members(data) {
+    const res = http.get(`${BASE_URL}/members?page=0&size=20&withTotal=false`,
+        { headers: { Authorization: `Bearer ${data.token}` }, tags: { name: 'members' } });
+    check(res, { 'members 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,69 @@
+package com.sys.kanri.benchmarks;
+
+import com.sys.kanri.dto.ApiSuccessResponse;
+import com.sys.kanri.dto.response.MemberResDto;
+import com.sys.kanri.dto.response.PaginationResDto;
+import com.sys.kanri.mapper.MemberMapperImpl;
+import com.sys.kanri.utils.ResponseFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí dựng envelope qua {@link ResponseFactory} và serialize {@link ApiSuccessResponse} bằng Jackson.
+ * Chạy kèm {@code -Djmh.args="-prof gc"} để đo số byte cấp phát cho mỗi response (gc.alloc.rate.norm);
+ * so sánh kết quả trước/sau khi chuyển sang serializer riêng của envelope.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private static final Map<String, String> VALIDATION_ERRORS = Map.of(
+            "email", "Email không hợp lệ", "password", "Mật khẩu phải có ít nhất 8 ký tự");
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private PaginationResDto<MemberResDto> page;
+
+    @Setup
+    public void setup() {
+        MemberMapperImpl memberMapper = new MemberMapperImpl();
+        List<MemberResDto> content = BenchmarkFixtures.members(pageSize).stream()
+                .map(memberMapper::toDto)
+                .toList();
+        page = new PaginationResDto<>(content, 0, pageSize, 10_000L, 10_000 / pageSize,
+                false, true, true, false);
+    }
+
+    @Benchmark
+    public ApiSuccessResponse<?> buildEnvelope() {
+        return ResponseFactory.ok(page, "").getBody();
+    }
+
+    @Benchmark
+    public byte[] serializeEnvelope() {
+        return jsonMapper.writeValueAsBytes(ResponseFactory.ok(page, "").getBody());
+    }
+
+    @Benchmark
+    public byte[] serializeErrorEnvelope() {
+        return jsonMapper.writeValueAsBytes(
+                ResponseFactory.error("U40101", "Sai tên đăng nhập hoặc mật khẩu", HttpStatus.UNAUTHORIZED).getBody());
+    }
+
+    @Benchmark
+    public byte[] serializeValidationErrorEnvelope() {
+        return jsonMapper.writeValueAsBytes(ResponseFactory.error("E40001", "Dữ liệu không hợp lệ",
+                HttpStatus.BAD_REQUEST, VALIDATION_ERRORS).getBody());
+    }
+}
@@ -0,0 +1,92 @@
+package com.sys.kanri.benchmarks;
+
+import com.sys.kanri.entities.Member;
+import com.sys.kanri.entities.Role;
+import com.sys.kanri.enums.JwtAlgorithm;
+import com.sys.kanri.enums.RoleType;
+import com.sys.kanri.repositories.RevokedTokenRepository;
+import com.sys.kanri.security.AccessTokenDenylist;
+import com.sys.kanri.security.JwtService;
+import com.sys.kanri.security.JwtSigningKeys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dựng các đối tượng dùng chung cho benchmark mà không cần khởi động Spring context.
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET = "SGVsbG8gSmF2YSBJc2FueG9vbCBUaGlzIHNlY3JldCBLZXkgZm9yIEpXVCAoMjU2IGJpdCBTZWN1cmUp";
+
+    // Profile dev cho phép sinh khóa tạm khi không có keystore
+    private static final MockEnvironment DEV = new MockEnvironment();
+
+    static {
+        DEV.setActiveProfiles("dev");
+    }
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtService jwtService(boolean tokenCacheEnabled) {
+        return jwtService(tokenCacheEnabled, JwtAlgorithm.HS256);
+    }
+
+    /**
+     * JwtService ký bằng thuật toán chỉ định; ES256/EdDSA dùng cặp khóa tạm sinh lúc khởi tạo.
+     */
+    static JwtService jwtService(boolean tokenCacheEnabled, JwtAlgorithm algorithm) {
+        JwtSigningKeys signingKeys = new JwtSigningKeys(algorithm, SECRET, "", "", "", DEV);
+        JwtService jwtService = new JwtService(new SimpleMeterRegistry(), signingKeys);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "tokenCacheEnabled", tokenCacheEnabled);
+        ReflectionTestUtils.setField(jwtService, "tokenCacheMaxSize", 10_000L);
+        jwtService.init();
+        return jwtService;
+    }
+
+    /**
+     * Denylist với {@code revoked} jti đã bị thu hồi, repository giả lập (không truy cập DB).
+     */
+    static AccessTokenDenylist accessTokenDenylist(int revoked) {
+        AccessTokenDenylist denylist = new AccessTokenDenylist(
+                Mockito.mock(RevokedTokenRepository.class), 3_600_000L, 100_000, 0.001, 1000, new SimpleMeterRegistry());
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(30);
+        for (int i = 0; i < revoked; i++) {
+            denylist.revoke(UUID.randomUUID(), expiresAt);
+        }
+        return denylist;
+    }
+
+    static Member member(long id) {
+        Member member = Member.builder()
+                .id(id)
+                .username("member" + id)
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6lYzRP1t9sL5jC0hF0c2pQK")
+                .fullName("Member " + id)
+                .email("member" + id + "@kanri.sys")
+                .phone("0912345678")
+                .address("Hà Nội")
+                .gender("Other")
+                .role(Role.builder().id(2L).name(RoleType.CUSTOMER).build())
+                .build();
+        member.setCreatedAt(LocalDateTime.now());
+        member.setUpdatedAt(LocalDateTime.now());
+        return member;
+    }
+
+    static List<Member> members(int count) {
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            members.add(member(i));
+        }
+        return members;
+    }
+}
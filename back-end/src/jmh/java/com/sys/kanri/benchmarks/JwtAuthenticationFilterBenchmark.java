@@ -0,0 +1,73 @@
+package com.sys.kanri.benchmarks;
+
+import com.sys.kanri.entities.Member;
+import com.sys.kanri.enums.AuthMode;
+import com.sys.kanri.security.JwtAuthenticationFilter;
+import com.sys.kanri.security.JwtPrincipal;
+import com.sys.kanri.security.JwtService;
+import com.sys.kanri.security.PrincipalCache;
+import com.sys.kanri.services.MemberService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thông lượng của {@link JwtAuthenticationFilter} với filter chain rỗng và MemberService giả lập.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"DATABASE", "CLAIMS"})
+    private AuthMode authMode;
+
+    @Param({"true", "false"})
+    private boolean tokenCacheEnabled;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setup() {
+        Member member = BenchmarkFixtures.member(42L);
+        MemberService memberService = Mockito.mock(MemberService.class);
+        Mockito.when(memberService.loadPrincipal(member.getUsername())).thenReturn(JwtPrincipal.of(member));
+
+        JwtService jwtService = BenchmarkFixtures.jwtService(tokenCacheEnabled);
+        PrincipalCache principalCache = new PrincipalCache(10_000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        // 10.000 jti đã bị thu hồi: token của benchmark đi qua nhánh bloom filter miss như request thông thường
+        filter = new JwtAuthenticationFilter(jwtService, memberService, principalCache,
+                BenchmarkFixtures.accessTokenDenylist(10_000));
+        ReflectionTestUtils.setField(filter, "authMode", authMode);
+
+        String token = jwtService.generateAccessToken(
+                Map.of(JwtService.CLAIM_ROLE, "CUSTOMER", JwtService.CLAIM_USER_ID, member.getId()),
+                member.getUsername());
+        request = new MockHttpServletRequest("GET", "/members");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        filter.doFilter(request, response, chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,59 @@
+package com.sys.kanri.benchmarks;
+
+import com.sys.kanri.security.JwtService;
+import com.sys.kanri.security.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí tạo và xác thực JWT: parse một lần (có/không cache) so với ba lần parse như trước đây.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService uncachedJwtService;
+    private JwtService cachedJwtService;
+    private String accessToken;
+
+    @Setup
+    public void setup() {
+        uncachedJwtService = BenchmarkFixtures.jwtService(false);
+        cachedJwtService = BenchmarkFixtures.jwtService(true);
+        accessToken = uncachedJwtService.generateAccessToken(
+                Map.of(JwtService.CLAIM_ROLE, "CUSTOMER", JwtService.CLAIM_USER_ID, 42L), "member42");
+    }
+
+    @Benchmark
+    public String buildAccessToken() {
+        return uncachedJwtService.generateAccessToken(
+                Map.of(JwtService.CLAIM_ROLE, "CUSTOMER", JwtService.CLAIM_USER_ID, 42L), "member42");
+    }
+
+    @Benchmark
+    public VerifiedToken parseOnce() {
+        return uncachedJwtService.parseToken(accessToken);
+    }
+
+    @Benchmark
+    public VerifiedToken parseCached() {
+        return cachedJwtService.parseToken(accessToken);
+    }
+
+    /**
+     * Mô phỏng luồng cũ của filter: parse lấy username, rồi parse lại hai lần để kiểm tra username và expiration.
+     */
+    @Benchmark
+    public void parseThreeTimes(Blackhole blackhole) {
+        blackhole.consume(uncachedJwtService.parseToken(accessToken).subject());
+        blackhole.consume(uncachedJwtService.parseToken(accessToken).subject());
+        blackhole.consume(uncachedJwtService.parseToken(accessToken).expiration());
+    }
+}
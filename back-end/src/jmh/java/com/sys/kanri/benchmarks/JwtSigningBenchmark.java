@@ -0,0 +1,45 @@
+package com.sys.kanri.benchmarks;
+
+import com.sys.kanri.enums.JwtAlgorithm;
+import com.sys.kanri.security.JwtService;
+import com.sys.kanri.security.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí ký và xác thực access token theo từng thuật toán (HS256, ES256, EdDSA), không dùng cache claims.
+ * Chạy với -prof gc để so sánh cả lượng cấp phát.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    @Param({"HS256", "ES256", "EDDSA"})
+    private JwtAlgorithm algorithm;
+
+    private JwtService jwtService;
+    private String accessToken;
+
+    @Setup
+    public void setup() {
+        jwtService = BenchmarkFixtures.jwtService(false, algorithm);
+        accessToken = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateAccessToken(
+                Map.of(JwtService.CLAIM_ROLE, "CUSTOMER", JwtService.CLAIM_USER_ID, 42L), "member42");
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.parseToken(accessToken);
+    }
+}
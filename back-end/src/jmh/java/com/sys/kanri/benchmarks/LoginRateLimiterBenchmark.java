@@ -0,0 +1,54 @@
+package com.sys.kanri.benchmarks;
+
+import com.sys.kanri.security.LoginRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí một lần kiểm tra {@link LoginRateLimiter} (mục tiêu: dưới 1 µs), với một key nóng
+ * bị nhiều thread tranh chấp và với nhiều key phân tán.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LoginRateLimiterBenchmark {
+
+    // 1: mọi thread cùng một username/IP; 100000: key phân tán
+    @Param({"1", "100000"})
+    private int keyCount;
+
+    @Param({"allow", "reject"})
+    private String outcome;
+
+    private LoginRateLimiter limiter;
+    private String[] usernames;
+    private String[] ips;
+
+    @Setup
+    public void setup() {
+        // allow: capacity rất lớn để luôn đi qua nhánh CAS thành công; reject: bucket cạn sau lần đầu
+        int capacity = "allow".equals(outcome) ? Integer.MAX_VALUE : 1;
+        limiter = new LoginRateLimiter(true, capacity, Duration.ofHours(1), capacity, Duration.ofHours(1),
+                200_000, new SimpleMeterRegistry());
+        usernames = new String[keyCount];
+        ips = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            usernames[i] = "member" + i;
+            ips[i] = "10.0." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        int i = keyCount == 1 ? 0 : ThreadLocalRandom.current().nextInt(keyCount);
+        return limiter.tryAcquire(usernames[i], ips[i]);
+    }
+}
@@ -0,0 +1,143 @@
+package com.sys.kanri.benchmarks;
+
+import com.sys.kanri.KanriApplication;
+import com.sys.kanri.dto.request.RegisterReqDto;
+import com.sys.kanri.dto.response.MemberImportResDto;
+import com.sys.kanri.entities.Member;
+import com.sys.kanri.entities.Role;
+import com.sys.kanri.enums.ExportFormat;
+import com.sys.kanri.enums.RoleType;
+import com.sys.kanri.repositories.MemberRepository;
+import com.sys.kanri.repositories.RoleRepository;
+import com.sys.kanri.services.MemberImportService;
+import com.sys.kanri.services.MemberService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thông lượng thêm thành viên (số dòng/giây) qua registerMember, saveAll trong một transaction và bulk import.
+ * Cần PostgreSQL đang chạy theo cấu hình datasource (ghi đè bằng -Djmh.args="-jvmArgs -Dspring.datasource.url=...").
+ * Để so sánh trước/sau khi đổi IDENTITY sang sequence, chạy benchmark này ở hai commit và so sánh jmh-result.json.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MemberInsertBenchmark {
+
+    private static final int BULK_SIZE = 500;
+    private static final String PREFIX = "bench-";
+
+    // 1 = tắt JDBC batching, 50 = cấu hình mặc định
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private MemberService memberService;
+    private MemberRepository memberRepository;
+    private MemberImportService memberImportService;
+    private TransactionTemplate transactionTemplate;
+    private Role customerRole;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SpringApplication application = new SpringApplication(KanriApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setDefaultProperties(Map.of(
+                "spring.jpa.properties.hibernate.jdbc.batch_size", jdbcBatchSize,
+                "spring.jpa.show-sql", false,
+                // Băm mật khẩu nhanh nhất có thể để đo chi phí ghi DB thay vì BCrypt
+                "security.password.min-strength", 4,
+                "security.password.max-strength", 4,
+                "logging.level.root", "warn"));
+        context = application.run();
+
+        memberService = context.getBean(MemberService.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberImportService = context.getBean(MemberImportService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        customerRole = context.getBean(RoleRepository.class).findByName(RoleType.CUSTOMER).orElseThrow();
+        cleanUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cleanUp();
+        context.close();
+    }
+
+    @Benchmark
+    public void registerMember() {
+        RegisterReqDto request = new RegisterReqDto();
+        long n = sequence.incrementAndGet();
+        request.setUsername(PREFIX + n);
+        request.setEmail(PREFIX + n + "@kanri.sys");
+        request.setFullName("Bench Member " + n);
+        request.setPhone("0912345678");
+        request.setAddress("Hà Nội");
+        request.setGender("Other");
+        ReflectionTestUtils.setField(request, "password", "password");
+        memberService.registerMember(request, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public void saveAllInOneTransaction() {
+        List<Member> members = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            long n = sequence.incrementAndGet();
+            members.add(Member.builder()
+                    .username(PREFIX + n)
+                    .password("{noop}password")
+                    .fullName("Bench Member " + n)
+                    .email(PREFIX + n + "@kanri.sys")
+                    .role(customerRole)
+                    .build());
+        }
+        transactionTemplate.executeWithoutResult(status -> memberRepository.saveAll(members));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public Object importNdjson() throws Exception {
+        StringBuilder body = new StringBuilder(BULK_SIZE * 200);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            long n = sequence.incrementAndGet();
+            body.append("{\"username\":\"").append(PREFIX).append(n)
+                    .append("\",\"email\":\"").append(PREFIX).append(n).append("@kanri.sys")
+                    .append("\",\"fullName\":\"Bench Member ").append(n)
+                    .append("\",\"phone\":\"0912345678\",\"address\":\"Hà Nội\",\"gender\":\"Other\",\"password\":\"password\"}\n");
+        }
+        UUID id = memberImportService.startImport(ExportFormat.NDJSON,
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), null).getId();
+        // Import chạy nền: chờ job xong để đo cả thời gian nhập
+        MemberImportResDto job;
+        do {
+            Thread.sleep(1);
+            job = memberImportService.getImport(id);
+        } while (job.getFinishedAt() == null);
+        return job;
+    }
+
+    private void cleanUp() {
+        context.getBean(JdbcTemplate.class).update("DELETE FROM members WHERE username LIKE ?", PREFIX + "%");
+    }
+}
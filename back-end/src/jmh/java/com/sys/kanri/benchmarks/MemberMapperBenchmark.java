@@ -0,0 +1,40 @@
+package com.sys.kanri.benchmarks;
+
+import com.sys.kanri.dto.response.MemberResDto;
+import com.sys.kanri.entities.Member;
+import com.sys.kanri.mapper.MemberMapper;
+import com.sys.kanri.mapper.MemberMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí chuyển một trang Member sang MemberResDto qua MapStruct.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberMapperBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int pageSize;
+
+    private final MemberMapper memberMapper = new MemberMapperImpl();
+    private List<Member> members;
+
+    @Setup
+    public void setup() {
+        members = BenchmarkFixtures.members(pageSize);
+    }
+
+    @Benchmark
+    public List<MemberResDto> toDtoPage() {
+        return members.stream()
+                .map(memberMapper::toDto)
+                .toList();
+    }
+}
@@ -0,0 +1,48 @@
+package com.sys.kanri.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application {@link DataSource} with datasource-proxy so every statement is timed into
+ * Micrometer and slow or sampled statements are logged with redacted parameters.
+ * Replaces Hibernate's {@code show-sql} / {@code org.hibernate.SQL} logging, which wrote every
+ * statement synchronously on the request thread.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "db.query-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    // static: BeanPostProcessor phải được tạo trước các bean khác, không phụ thuộc vào instance của cấu hình
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${db.query-log.slow-threshold:200ms}") Duration slowThreshold,
+            @Value("${db.query-log.sample-rate:0}") double sampleRate) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    QueryObservabilityListener listener =
+                            new QueryObservabilityListener(meterRegistry.getObject(), slowThreshold, sampleRate);
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,46 +1,34 @@
 package com.sys.kanri.configs;
 
 import com.sys.kanri.entities.Member;
-import com.sys.kanri.entities.Role;
 import com.sys.kanri.enums.RoleType;
 import com.sys.kanri.repositories.MemberRepository;
-import com.sys.kanri.repositories.RoleRepository;
+import com.sys.kanri.services.impl.RoleRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class DatabaseInitializer implements CommandLineRunner {
 
     private final MemberRepository memberRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
 
+    /**
+     * Creates the default admin account when it does not exist yet.
+     * Tables, indexes and roles are created by the Flyway migrations, so a normal start only costs
+     * one {@code exists} query; the BCrypt encode runs only on the very first start.
+     */
     @Override
-    @Transactional
     public void run(String @NonNull ... args) throws Exception {
-        // 1. Khởi tạo Role ADMIN nếu chưa có
-        Role adminRole = roleRepository.findByName(RoleType.ADMIN)
-                .orElseGet(() -> {
-                    Role newRole = Role.builder()
-                            .name(RoleType.ADMIN)
-                            .build();
-                    return roleRepository.save(newRole);
-                });
-
-        // 2. Khởi tạo Role CUSTOMER và SUPPORT (Optional - để đầy đủ database)
-        if (roleRepository.findByName(RoleType.CUSTOMER).isEmpty()) {
-            roleRepository.save(Role.builder().name(RoleType.CUSTOMER).build());
-        }
-        if (roleRepository.findByName(RoleType.SUPPORT).isEmpty()) {
-            roleRepository.save(Role.builder().name(RoleType.SUPPORT).build());
-        }
-
-        // 3. Khởi tạo tài khoản Admin mặc định nếu chưa có
+        // Khởi tạo tài khoản Admin mặc định nếu chưa có
         String adminUsername = "admin";
         if (!memberRepository.existsByUsername(adminUsername)) {
             Member admin = Member.builder()
@@ -51,11 +39,16 @@ public class DatabaseInitializer implements CommandLineRunner {
                     .phone("0000000000") // Validate regex yêu cầu số
                     .address("System HQ")
                     .gender("Other")
-                    .role(adminRole)
+                    .role(roleRegistry.reference(RoleType.ADMIN)) // Role được tạo sẵn bởi migration V1
                     .build();
 
-            memberRepository.save(admin);
-            System.out.println(">>> Đã tạo tài khoản Admin mặc định: admin / admin123");
+            try {
+                memberRepository.saveAndFlush(admin);
+                // Không ghi mật khẩu ra log
+                log.info("Created default admin account '{}', change its password after the first login", adminUsername);
+            } catch (DataIntegrityViolationException e) {
+                // Một instance khác khởi động cùng lúc đã tạo admin trước
+            }
         }
     }
 }
\ No newline at end of file
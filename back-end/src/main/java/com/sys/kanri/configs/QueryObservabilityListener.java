@@ -0,0 +1,112 @@
+package com.sys.kanri.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Records the latency of every statement in the {@code db.query} timer (tagged by statement type and
+ * outcome) and logs only statements slower than the threshold, plus an optional random sample.
+ * Bound values that look like credentials are replaced before logging.
+ */
+class QueryObservabilityListener implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryObservabilityListener.class);
+
+    // Mã băm mật khẩu ({bcrypt}$2a$10$...) và chuỗi có dạng JWT
+    private static final Pattern PASSWORD_HASH = Pattern.compile("^(\\{[a-z0-9]+})?\\$2[abxy]?\\$\\d{2}\\$.+");
+    private static final Pattern JWT = Pattern.compile("^[A-Za-z0-9_-]{10,}\\.[A-Za-z0-9_-]{10,}\\.[A-Za-z0-9_-]*$");
+    private static final int MAX_VALUE_LENGTH = 100;
+    private static final String REDACTED = "[REDACTED]";
+
+    private final Map<QueryType, Timer> successTimers = new EnumMap<>(QueryType.class);
+    private final Map<QueryType, Timer> errorTimers = new EnumMap<>(QueryType.class);
+    private final long slowThresholdMillis;
+    private final double sampleRate;
+
+    QueryObservabilityListener(MeterRegistry meterRegistry, Duration slowThreshold, double sampleRate) {
+        this.slowThresholdMillis = slowThreshold.toMillis();
+        this.sampleRate = sampleRate;
+        // Tạo sẵn timer cho mọi tổ hợp tag để không tra cứu registry trên mỗi câu lệnh
+        for (QueryType type : QueryType.values()) {
+            successTimers.put(type, timer(meterRegistry, type, "success"));
+            errorTimers.put(type, timer(meterRegistry, type, "error"));
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, QueryType type, String outcome) {
+        return Timer.builder("db.query")
+                .description("Latency of JDBC statements")
+                .tag("type", type.name().toLowerCase(Locale.ROOT))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        QueryType type = queryInfoList.isEmpty()
+                ? QueryType.OTHER
+                : QueryUtils.getQueryType(queryInfoList.getFirst().getQuery());
+        (execInfo.isSuccess() ? successTimers : errorTimers).get(type).record(elapsed, TimeUnit.MILLISECONDS);
+
+        if (elapsed >= slowThresholdMillis) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Slow query ({} ms, batch={}): {}", elapsed, execInfo.getBatchSize(), describe(queryInfoList));
+            }
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate && logger.isInfoEnabled()) {
+            logger.info("Sampled query ({} ms, batch={}): {}", elapsed, execInfo.getBatchSize(), describe(queryInfoList));
+        }
+    }
+
+    private static String describe(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .map(query -> query.getQuery().strip() + " " + query.getParametersList().stream()
+                        .limit(5) // Batch lớn: chỉ ghi vài bộ tham số đầu
+                        .map(QueryObservabilityListener::describeParameters)
+                        .collect(Collectors.joining(", ")))
+                .collect(Collectors.joining(" | "));
+    }
+
+    private static String describeParameters(List<ParameterSetOperation> operations) {
+        return operations.stream()
+                .map(operation -> {
+                    Object[] args = operation.getArgs();
+                    return args.length > 1 ? redact(args[1]) : "";
+                })
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private static String redact(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        String text = value.toString();
+        if (PASSWORD_HASH.matcher(text).matches() || JWT.matcher(text).matches()) {
+            return REDACTED;
+        }
+        return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "..." : text;
+    }
+}
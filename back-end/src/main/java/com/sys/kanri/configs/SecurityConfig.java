@@ -1,16 +1,24 @@
 package com.sys.kanri.configs;
 
+import com.sys.kanri.controllers.JwksController;
+import com.sys.kanri.enums.RoleType;
+import com.sys.kanri.security.BCryptStrengthCalibrator;
 import com.sys.kanri.security.JwtAuthenticationFilter;
+import com.sys.kanri.security.PasswordHashingService;
+import com.sys.kanri.security.PooledPasswordEncoder;
 import com.sys.kanri.services.impl.MemberServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -18,7 +26,9 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -30,13 +40,18 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/**")
+                        .requestMatchers("/auth/**", JwksController.PATH)
                         .permitAll()
                         .requestMatchers(
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html"
                         ).permitAll()
+                        // Import tạo được tài khoản SUPPORT, export trả về toàn bộ dữ liệu cá nhân: chỉ ADMIN
+                        .requestMatchers("/members/import", "/members/import/**", "/members/export")
+                        .hasRole(RoleType.ADMIN.name())
+                        .requestMatchers("/members/**")
+                        .hasAnyRole(RoleType.ADMIN.name(), RoleType.SUPPORT.name())
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -46,14 +61,38 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Authenticates logins against {@link MemberServiceImpl}. Only BCrypt verification and rehashing
+     * run on the hashing pool (see {@link PooledPasswordEncoder}); the member lookup and the upgraded
+     * hash write run on the request thread.
+     */
     @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
-        return config.getAuthenticationManager();
+    public AuthenticationManager authenticationManager(MemberServiceImpl memberService,
+                                                       PasswordHashingService passwordHashingService,
+                                                       PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(memberService);
+        provider.setPasswordEncoder(new PooledPasswordEncoder(passwordHashingService, passwordEncoder));
+        provider.setUserDetailsPasswordService(memberService);
+        return new ProviderManager(provider);
     }
 
+    /**
+     * BCrypt encoder whose strength is calibrated at startup to the configured target hash time.
+     * Hashes are stored with the {@code {bcrypt}} prefix; legacy unprefixed or weaker hashes still
+     * match and are upgraded transparently on the next successful login
+     * (see {@link MemberServiceImpl#updatePassword}).
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password.target-hash-time:250ms}") Duration targetHashTime,
+            @Value("${security.password.min-strength:10}") int minStrength,
+            @Value("${security.password.max-strength:14}") int maxStrength) {
+        int strength = BCryptStrengthCalibrator.calibrate(targetHashTime, minStrength, maxStrength);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
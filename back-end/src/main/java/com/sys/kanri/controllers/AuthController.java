@@ -4,6 +4,7 @@ import com.sys.kanri.controllers.base.BaseController;
 import com.sys.kanri.dto.request.LoginReqDto;
 import com.sys.kanri.dto.request.RegisterReqDto;
 import com.sys.kanri.dto.response.AuthResDto;
+import com.sys.kanri.security.LoginRateLimiter;
 import com.sys.kanri.services.AuthService;
 import com.sys.kanri.services.MemberService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -33,22 +34,22 @@ public class AuthController extends BaseController {
 
     private final AuthService authService;
     private final MemberService memberService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/login")
     @Operation(summary = "Đăng nhập hệ thống", description = "Trả về Access Token và Refresh Token")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginReqDto request, HttpServletResponse response) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginReqDto request,
+                                   HttpServletRequest httpRequest,
+                                   HttpServletResponse response) {
+        // Chặn trước khi truy vấn DB và so khớp BCrypt
+        loginRateLimiter.check(request.getUsername(), httpRequest.getRemoteAddr());
         AuthResDto result = authService.authenticate(request.getUsername(), request.getPassword());
 
         // 1. Set Access Token Cookie
         setCookie(response, "accessToken", result.getAccessToken(), (int) (jwtExpiration / 1000));
 
         // 2. Set Refresh Token Cookie (Quan trọng: HttpOnly, Path chỉ định)
-        Cookie refreshCookie = new Cookie("refreshToken", result.getRefreshToken());
-        refreshCookie.setHttpOnly(true);
-        refreshCookie.setSecure(false); // True nếu chạy HTTPS
-        refreshCookie.setPath("/auth/refresh"); // Chỉ gửi cookie này khi gọi đúng API refresh
-        refreshCookie.setMaxAge((int) (refreshExpiration / 1000));
-        response.addCookie(refreshCookie);
+        setRefreshCookie(httpRequest, response, result.getRefreshToken(), (int) (refreshExpiration / 1000));
 
         return ok(result, "Đăng nhập thành công");
     }
@@ -68,12 +69,25 @@ public class AuthController extends BaseController {
         // Gọi service xử lý logic
         AuthResDto result = authService.refreshToken(refreshToken);
 
-        // Cập nhật lại Access Token Cookie mới
+        // Cập nhật lại Access Token Cookie và Refresh Token Cookie mới (refresh token được xoay vòng mỗi lần)
         setCookie(response, "accessToken", result.getAccessToken(), (int) (jwtExpiration / 1000));
+        setRefreshCookie(request, response, result.getRefreshToken(), (int) (refreshExpiration / 1000));
 
         return ok(result, "Làm mới token thành công");
     }
 
+    @PostMapping("/logout")
+    @Operation(summary = "Đăng xuất", description = "Thu hồi refresh token và xóa cookie")
+    public ResponseEntity<?> logout(HttpServletRequest request, HttpServletResponse response) {
+        authService.logout(getCookieValue(request, "refreshToken"));
+
+        // maxAge = 0 để trình duyệt xóa cookie
+        setCookie(response, "accessToken", "", 0);
+        setRefreshCookie(request, response, "", 0);
+
+        return ok(null, "Đăng xuất thành công");
+    }
+
     /**
      * Sets a cookie with the specified name, value, and expiration time on the HTTP response.
      * The cookie is configured to be HTTP-only and is accessible on the root path.
@@ -92,6 +106,23 @@ public class AuthController extends BaseController {
         response.addCookie(cookie);
     }
 
+    /**
+     * Sets the refresh token cookie. It is only sent to {@code /auth} endpoints (refresh and logout).
+     *
+     * @param request  the current request, used for the context path
+     * @param response the HttpServletResponse object to which the cookie will be added
+     * @param value    the refresh token, or an empty string to clear the cookie
+     * @param maxAge   the maximum age of the cookie in seconds
+     */
+    private void setRefreshCookie(HttpServletRequest request, HttpServletResponse response, String value, int maxAge) {
+        Cookie refreshCookie = new Cookie("refreshToken", value);
+        refreshCookie.setHttpOnly(true);
+        refreshCookie.setSecure(false); // True nếu chạy HTTPS
+        refreshCookie.setPath(request.getContextPath() + "/auth"); // Chỉ gửi cookie này khi gọi API refresh/logout
+        refreshCookie.setMaxAge(maxAge);
+        response.addCookie(refreshCookie);
+    }
+
     // Helper method để lấy value từ cookie
     private String getCookieValue(HttpServletRequest request, String name) {
         if (request.getCookies() != null) {
@@ -0,0 +1,54 @@
+package com.sys.kanri.controllers;
+
+import com.sys.kanri.security.JwtSigningKeys;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes the public signing keys as a JWK set (RFC 7517), so other services verify access tokens
+ * locally. The body is the bare key set, not wrapped in {@code ApiSuccessResponse}, as JWKS clients expect.
+ */
+@RestController
+@Tag(name = "JWKS", description = "Khóa công khai để xác thực access token")
+public class JwksController {
+
+    public static final String PATH = "/.well-known/jwks.json";
+
+    private final byte[] body;
+    private final String etag;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtSigningKeys signingKeys, JsonMapper jsonMapper,
+                          @Value("${jwt.signing.jwks-max-age:10m}") Duration maxAge) {
+        // Bộ khóa chỉ đổi khi khởi động lại nên serialize và tính ETag một lần
+        this.body = jsonMapper.writeValueAsBytes(Map.of("keys", signingKeys.publicJwks()));
+        this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping(value = PATH, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "JWK set", description = "Trả về 304 khi If-None-Match khớp ETag")
+    public ResponseEntity<byte[]> jwks(@RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
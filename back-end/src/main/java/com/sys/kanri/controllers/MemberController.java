@@ -0,0 +1,173 @@
+package com.sys.kanri.controllers;
+
+import com.sys.kanri.controllers.base.BaseController;
+import com.sys.kanri.dto.request.MemberSearchReqDto;
+import com.sys.kanri.dto.response.CursorPaginationResDto;
+import com.sys.kanri.dto.response.MemberImportResDto;
+import com.sys.kanri.dto.response.MemberResDto;
+import com.sys.kanri.dto.response.PaginationResDto;
+import com.sys.kanri.enums.ExportFormat;
+import com.sys.kanri.enums.RoleType;
+import com.sys.kanri.services.MemberExportService;
+import com.sys.kanri.services.MemberImportService;
+import com.sys.kanri.services.MemberService;
+import com.sys.kanri.utils.ETags;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/members")
+@Validated
+@RequiredArgsConstructor
+@Tag(name = "Member", description = "API quản lý thành viên")
+public class MemberController extends BaseController {
+
+    private final MemberService memberService;
+    private final MemberExportService memberExportService;
+    private final MemberImportService memberImportService;
+
+    @Value("${member.export.timeout:30m}")
+    private Duration exportTimeout;
+
+    @GetMapping
+    @Operation(summary = "Danh sách thành viên",
+            description = "Phân trang theo page/size, hoặc phân trang keyset khi truyền cursor (cursor rỗng = trang đầu)")
+    public ResponseEntity<?> getMembers(@Valid @ParameterObject MemberSearchReqDto request, WebRequest webRequest) {
+        // ETag tính từ id/updatedAt của các dòng trong trang: trang không đổi trả 304, không serialize lại
+        if (request.getCursor() != null) {
+            CursorPaginationResDto<MemberResDto> page = memberService.getMembersByCursor(request);
+            return okIfModified(webRequest, ETags.page(page), () -> page);
+        }
+        PaginationResDto<MemberResDto> page = memberService.getAllMember(request);
+        return okIfModified(webRequest, ETags.page(page), () -> page);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Chi tiết thành viên", description = "Trả về 304 khi If-None-Match khớp ETag (tính từ updatedAt)")
+    public ResponseEntity<?> getMember(@PathVariable Long id, WebRequest webRequest) {
+        // Chỉ đọc updatedAt; nạp và serialize thành viên khi client chưa có bản mới nhất
+        String etag = ETags.member(id, memberService.getMemberVersion(id));
+        return okIfModified(webRequest, etag, () -> memberService.getMemberById(id));
+    }
+
+    @GetMapping("/roles/{role}")
+    @Operation(summary = "Danh sách thành viên theo quyền", description = "Phân trang theo page/size, sắp xếp theo id")
+    public ResponseEntity<?> getMembersByRole(
+            @PathVariable RoleType role,
+            @Valid @ParameterObject MemberSearchReqDto request,
+            WebRequest webRequest) {
+        PaginationResDto<MemberResDto> page = memberService.getMembersByRole(role, request);
+        return okIfModified(webRequest, ETags.page(page), () -> page);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Gợi ý thành viên", description = "Gợi ý theo tiền tố của username, email hoặc họ tên")
+    public ResponseEntity<?> suggest(
+            @RequestParam("q") @NotBlank String prefix,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+        return ok(memberService.suggestMembers(prefix, limit));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Xuất danh sách thành viên",
+            description = "Stream toàn bộ thành viên dưới dạng NDJSON hoặc CSV, nén gzip nếu client hỗ trợ")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            NativeWebRequest webRequest) {
+        // Export lớn chạy lâu hơn timeout async mặc định: chỉ nới timeout cho request này
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(
+                ExportTimeout.class.getName(), new ExportTimeout(exportTimeout));
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (OutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                    memberExportService.exportMembers(format, compressed);
+                }
+            } else {
+                memberExportService.exportMembers(format, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("members." + format.extension)
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Sets the timeout of the export's async request. Runs before the request enters async mode,
+     * which is the last point where the timeout can still change.
+     */
+    private record ExportTimeout(Duration timeout) implements CallableProcessingInterceptor {
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            if (request instanceof AsyncWebRequest asyncWebRequest) {
+                asyncWebRequest.setTimeout(timeout.toMillis());
+            }
+        }
+    }
+
+    @PostMapping("/import")
+    @Operation(summary = "Nhập danh sách thành viên",
+            description = "Nhập hàng loạt từ file CSV (dòng tiêu đề theo tên trường) hoặc NDJSON gửi trực tiếp trong body. "
+                    + "Chạy nền: trả về 202 cùng id, tiến độ và các dòng lỗi xem tại GET /members/import/{id}")
+    public ResponseEntity<?> importMembers(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(required = false) String mode,
+            InputStream body) throws IOException {
+        MemberImportResDto job = memberImportService.startImport(format, body, mode);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return accepted(job, "Đã nhận file, đang nhập thành viên", location);
+    }
+
+    @GetMapping("/import/{id}")
+    @Operation(summary = "Tiến độ nhập thành viên", description = "Số dòng đã đọc, đã nhập, bị lỗi và trạng thái của lần nhập")
+    public ResponseEntity<?> getImport(@PathVariable UUID id) {
+        return ok(memberImportService.getImport(id));
+    }
+}
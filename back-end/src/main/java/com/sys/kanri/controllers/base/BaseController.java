@@ -2,11 +2,19 @@ package com.sys.kanri.controllers.base;
 
 import com.sys.kanri.dto.ApiSuccessResponse;
 import com.sys.kanri.utils.ResponseFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
+import java.util.function.Supplier;
 
 public abstract class BaseController {
 
+    // Dữ liệu thành viên là dữ liệu riêng: không cho proxy dùng chung lưu lại, client luôn hỏi lại bằng ETag
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     protected <T> ResponseEntity<ApiSuccessResponse<T>> ok(T data, String message) {
         return ResponseFactory.ok(data, message);
     }
@@ -15,10 +23,30 @@ public abstract class BaseController {
         return ResponseFactory.ok(data, "");
     }
 
+    /**
+     * Conditional GET: answers 304 without a body when {@code If-None-Match} matches {@code etag},
+     * otherwise loads the data and returns it with the ETag. Clients must revalidate on every use.
+     *
+     * @return {@code null} when the 304 has already been written to the response
+     */
+    protected <T> ResponseEntity<ApiSuccessResponse<T>> okIfModified(WebRequest request, String etag, Supplier<T> data) {
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseFactory.ok(data.get(), "", etag, REVALIDATE);
+    }
+
     protected <T> ResponseEntity<ApiSuccessResponse<T>> created(T data, String message) {
         return ResponseFactory.success(data, message, HttpStatus.CREATED);
     }
 
+    /**
+     * 202 for work that continues in the background; {@code location} is where its status can be read.
+     */
+    protected <T> ResponseEntity<ApiSuccessResponse<T>> accepted(T data, String message, URI location) {
+        return ResponseFactory.accepted(data, message, location);
+    }
+
     protected <T> ResponseEntity<ApiSuccessResponse<T>> customStatus(T data, String message, HttpStatus status) {
         return ResponseFactory.success(data, message, status);
     }
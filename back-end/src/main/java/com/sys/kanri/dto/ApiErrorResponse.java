@@ -1,13 +1,16 @@
 package com.sys.kanri.dto;
 
-import lombok.Builder;
+import com.sys.kanri.dto.serializer.ApiErrorResponseSerializer;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import tools.jackson.databind.annotation.JsonSerialize;
 
 import java.time.Instant;
 import java.util.Map;
 
 @Getter
-@Builder
+@AllArgsConstructor
+@JsonSerialize(using = ApiErrorResponseSerializer.class)
 public class ApiErrorResponse {
     private Instant timestamp;
     private int status;
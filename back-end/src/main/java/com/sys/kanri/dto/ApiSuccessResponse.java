@@ -1,16 +1,19 @@
 package com.sys.kanri.dto;
 
-import lombok.Builder;
+import com.sys.kanri.dto.serializer.ApiSuccessResponseSerializer;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import tools.jackson.databind.annotation.JsonSerialize;
 
 import java.time.Instant;
 
 @Getter
-@Builder
+@AllArgsConstructor
+@JsonSerialize(using = ApiSuccessResponseSerializer.class)
 public class ApiSuccessResponse<T> {
     private Instant timestamp;
     private int status;
     private String message;
     private T data;
     private String path;
-}
\ No newline at end of file
+}
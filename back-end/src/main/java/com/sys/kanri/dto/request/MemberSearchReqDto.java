@@ -7,4 +7,11 @@ import lombok.Setter;
 @Setter
 public class MemberSearchReqDto extends PaginationReqDto{
     private String keyword;
+
+    // Khác null: phân trang keyset theo (createdAt, id), bỏ qua page và không đếm tổng.
+    // Chuỗi rỗng là trang đầu tiên, các trang sau dùng nextCursor của trang trước.
+    private String cursor;
+
+    // false: không đếm tổng số bản ghi, chỉ trả về hasNext
+    private boolean withTotal = true;
 }
@@ -1,5 +1,6 @@
 package com.sys.kanri.dto.request;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,6 +11,8 @@ public class PaginationReqDto {
     @Min(value = 0, message = "Số trang không được nhỏ hơn 0.")
     private int page = 0;
 
+    // Giới hạn trên: trang quá lớn tải toàn bộ bảng và size + 1 của phân trang keyset bị tràn số
     @Min(value = 1, message = "Kích thước trang không được nhỏ hơn 1.")
+    @Max(value = 100, message = "Kích thước trang không được lớn hơn 100.")
     private int size = 10;
 }
@@ -0,0 +1,17 @@
+package com.sys.kanri.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class CursorPaginationResDto<T> {
+    private List<T> content;
+    private int pageSize;
+    private String nextCursor; // null khi đã là trang cuối
+    private boolean hasNext;
+}
@@ -0,0 +1,35 @@
+package com.sys.kanri.dto.response;
+
+import com.sys.kanri.enums.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class MemberImportResDto {
+    private UUID id; // Dùng để theo dõi tiến độ tại GET /members/import/{id}
+    private ImportStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long totalRows; // Số dòng đã đọc đến thời điểm hiện tại
+    private long imported;
+    private long failed;
+    private List<RowError> errors; // Chỉ giữ tối đa member.import.max-errors lỗi đầu tiên
+    private boolean errorsTruncated;
+    private String message; // Lý do dừng khi status = FAILED
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class RowError {
+        private long row; // Số thứ tự dòng dữ liệu trong file (bắt đầu từ 1, không tính dòng tiêu đề)
+        private String username;
+        private String message;
+    }
+}
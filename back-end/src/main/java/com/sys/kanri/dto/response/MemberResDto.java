@@ -4,8 +4,11 @@ import com.sys.kanri.dto.MemberDto;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 public class MemberResDto extends MemberDto {
     private String role;
+    private LocalDateTime updatedAt; // Dùng làm phiên bản cho ETag
 }
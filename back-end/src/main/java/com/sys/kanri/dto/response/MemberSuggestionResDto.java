@@ -0,0 +1,14 @@
+package com.sys.kanri.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class MemberSuggestionResDto {
+    private Long id;
+    private String username;
+    private String fullName;
+}
@@ -13,8 +13,8 @@ public class PaginationResDto<T> {
     private List<T> content;
     private int pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements; // null khi không yêu cầu đếm tổng (withTotal=false)
+    private Integer totalPages; // null khi không yêu cầu đếm tổng (withTotal=false)
     private boolean isLast;
     private boolean isFirst;
     private boolean hasNext;
@@ -0,0 +1,51 @@
+package com.sys.kanri.dto.serializer;
+
+import com.sys.kanri.dto.ApiErrorResponse;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+
+import java.util.Map;
+
+/**
+ * Writes {@link ApiErrorResponse} field by field with pre-encoded property names.
+ * The {@code errors} map only ever holds strings, so it is written directly as well.
+ */
+public class ApiErrorResponseSerializer extends ValueSerializer<ApiErrorResponse> {
+
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString ERROR = new SerializedString("error");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString CODE = new SerializedString("code");
+    private static final SerializableString PATH = new SerializedString("path");
+    private static final SerializableString ERRORS = new SerializedString("errors");
+
+    @Override
+    public void serialize(ApiErrorResponse value, JsonGenerator gen, SerializationContext ctxt) throws JacksonException {
+        gen.writeStartObject(value);
+        ApiResponseFields.writeTimestamp(gen, TIMESTAMP, value.getTimestamp());
+        gen.writeName(STATUS);
+        gen.writeNumber(value.getStatus());
+        ApiResponseFields.writeString(gen, ERROR, value.getError());
+        ApiResponseFields.writeString(gen, MESSAGE, value.getMessage());
+        ApiResponseFields.writeString(gen, CODE, value.getCode());
+        ApiResponseFields.writeString(gen, PATH, value.getPath());
+        gen.writeName(ERRORS);
+        Map<String, String> errors = value.getErrors();
+        if (errors == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartObject(errors, errors.size());
+            for (Map.Entry<String, String> entry : errors.entrySet()) {
+                gen.writeName(entry.getKey());
+                gen.writeString(entry.getValue());
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,29 @@
+package com.sys.kanri.dto.serializer;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+
+import java.time.Instant;
+
+/**
+ * Field writers shared by the envelope serializers.
+ */
+final class ApiResponseFields {
+
+    private ApiResponseFields() {
+    }
+
+    static void writeString(JsonGenerator gen, SerializableString name, String value) {
+        gen.writeName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    // ISO-8601 (Instant#toString) giống định dạng mặc định của Jackson khi WRITE_DATES_AS_TIMESTAMPS tắt
+    static void writeTimestamp(JsonGenerator gen, SerializableString name, Instant value) {
+        writeString(gen, name, value != null ? value.toString() : null);
+    }
+}
@@ -0,0 +1,39 @@
+package com.sys.kanri.dto.serializer;
+
+import com.sys.kanri.dto.ApiSuccessResponse;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+
+/**
+ * Writes {@link ApiSuccessResponse} field by field instead of going through the bean introspection
+ * of Jackson. Property names are pre-encoded once; only {@code data} is handed back to Jackson.
+ */
+public class ApiSuccessResponseSerializer extends ValueSerializer<ApiSuccessResponse<?>> {
+
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString DATA = new SerializedString("data");
+    private static final SerializableString PATH = new SerializedString("path");
+
+    @Override
+    public void serialize(ApiSuccessResponse<?> value, JsonGenerator gen, SerializationContext ctxt) throws JacksonException {
+        gen.writeStartObject(value);
+        ApiResponseFields.writeTimestamp(gen, TIMESTAMP, value.getTimestamp());
+        gen.writeName(STATUS);
+        gen.writeNumber(value.getStatus());
+        ApiResponseFields.writeString(gen, MESSAGE, value.getMessage());
+        gen.writeName(DATA);
+        if (value.getData() == null) {
+            gen.writeNull();
+        } else {
+            ctxt.writeValue(gen, value.getData());
+        }
+        ApiResponseFields.writeString(gen, PATH, value.getPath());
+        gen.writeEndObject();
+    }
+}
@@ -15,8 +15,12 @@ import java.util.Collections;
 @Builder
 @Entity(name = "members")
 public class Member extends BaseEntity implements UserDetails {
+    // Sequence với pooled optimizer: Hibernate cấp id trong bộ nhớ cho cả khối allocationSize,
+    // không phải INSERT ngay để lấy khóa nên JDBC batching (hibernate.jdbc.batch_size) có hiệu lực.
+    // Giá trị này phải bằng INCREMENT BY của sequence (xem increment_size_mismatch_strategy)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "members_seq")
+    @SequenceGenerator(name = "members_seq", sequenceName = "members_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false, length = 50)
@@ -35,7 +39,8 @@ public class Member extends BaseEntity implements UserDetails {
     private String gender;
     private String imageUrl;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // LAZY: chỉ nạp role khi truy vấn yêu cầu (MemberRepository.findByUsername dùng @EntityGraph)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id", nullable = false)
     private Role role;
 
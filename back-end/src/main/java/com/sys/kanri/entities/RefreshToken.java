@@ -0,0 +1,44 @@
+package com.sys.kanri.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A refresh token issued to a member. Only the SHA-256 hash of the opaque token is stored.
+ * Tokens rotated from the same login share a {@code familyId}; presenting a token that was already
+ * used revokes the whole family.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @Column(length = 43)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private UUID familyId;
+
+    @Column(nullable = false)
+    private Long memberId;
+
+    private UUID accessJti; // jti của access token cấp cùng lúc, để thu hồi khi logout/đổi mật khẩu
+
+    @Column(nullable = false)
+    private LocalDateTime issuedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime usedAt;   // Thời điểm token được đổi sang token mới
+
+    private LocalDateTime revokedAt; // Thời điểm token bị thu hồi (logout, đổi mật khẩu, phát hiện dùng lại)
+}
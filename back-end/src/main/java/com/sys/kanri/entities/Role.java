@@ -1,14 +1,10 @@
 package com.sys.kanri.entities;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.sys.kanri.enums.RoleType;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Setter
 @Getter
 @NoArgsConstructor
@@ -19,16 +15,16 @@ import java.util.List;
 public class Role extends BaseEntity implements GrantedAuthority {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "roles_seq")
+    @SequenceGenerator(name = "roles_seq", sequenceName = "roles_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, unique = true, length = 50)
     private RoleType name;
 
-    @OneToMany(mappedBy = "role", cascade = CascadeType.ALL, orphanRemoval = false)
-    @JsonIgnoreProperties("role")
-    private List<Member> members = new ArrayList<>();
+    // Không khai báo @OneToMany members: danh sách thành viên theo role được truy vấn phân trang
+    // qua MemberRepository (findViewSliceByRole, countByRoleName) để không nạp toàn bộ vào bộ nhớ
 
     @Override
     public String getAuthority() {
@@ -39,12 +35,13 @@ public class Role extends BaseEntity implements GrantedAuthority {
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Role roleObj)) return false;
-        return id != null && id.equals(roleObj.id);
+        // Dùng getter: roleObj có thể là lazy proxy của Hibernate với field rỗng
+        return id != null && id.equals(roleObj.getId());
     }
 
     @Override
     public int hashCode() {
-        return getClass().hashCode();
+        return Role.class.hashCode();
     }
 
     @Override
@@ -0,0 +1,8 @@
+package com.sys.kanri.enums;
+
+public enum AuthMode {
+    // Nạp Member từ DB (qua PrincipalCache) cho mỗi request
+    DATABASE,
+    // Dựng principal trực tiếp từ claims của JWT, không truy cập DB
+    CLAIMS
+}
@@ -6,6 +6,7 @@ public enum ErrorCode {
     // User-related
     USERNAME_EXISTS("U40401", "Tên đăng nhập đã tồn tại", HttpStatus.CONFLICT),
     EMAIL_EXISTS("U40902", "Email đã được sử dụng", HttpStatus.CONFLICT),
+    MEMBER_NOT_FOUND("U40404", "Không tìm thấy thành viên", HttpStatus.NOT_FOUND),
     INVALID_CREDENTIALS("U40101", "Sai tên đăng nhập hoặc mật khẩu", HttpStatus.UNAUTHORIZED),
 
     // Password-related
@@ -15,12 +16,21 @@ public enum ErrorCode {
 
     // Authorization/Authentication
     UNAUTHORIZED_ACCESS("A40101", "Bạn không có quyền truy cập", HttpStatus.UNAUTHORIZED),
+    REFRESH_TOKEN_MISSING("A40102", "Refresh Token không tồn tại", HttpStatus.UNAUTHORIZED),
+    REFRESH_TOKEN_INVALID("A40302", "Refresh Token hết hạn hoặc không hợp lệ", HttpStatus.FORBIDDEN),
+    TOO_MANY_LOGIN_ATTEMPTS("A42901", "Đăng nhập quá nhiều lần, vui lòng thử lại sau", HttpStatus.TOO_MANY_REQUESTS),
 
     // Role
     ROLE_NOT_FOUND("R40401", "Không tìm thấy quyền", HttpStatus.NOT_FOUND),
     ROLE_DUPLICATED("R40901", "Quyền đã tồn tại", HttpStatus.CONFLICT),
     ROLE_ACCESS_DENIED("R40301", "Bạn không có quyền truy cập", HttpStatus.FORBIDDEN),
 
+    // Import
+    IMPORT_NOT_FOUND("I40401", "Không tìm thấy tiến trình nhập thành viên", HttpStatus.NOT_FOUND),
+
+    // Pagination
+    INVALID_CURSOR("C40001", "Cursor phân trang không hợp lệ", HttpStatus.BAD_REQUEST),
+
     // Order errors
     ORDER_NOT_FOUND("O40401", "Không tìm thấy đơn hàng", HttpStatus.NOT_FOUND),
     ORDER_INVALID_STATUS("O40001", "Trạng thái đơn hàng không hợp lệ", HttpStatus.BAD_REQUEST),
@@ -30,7 +40,8 @@ public enum ErrorCode {
     PRODUCT_INVALID_STATUS("O40001", "Trạng thái đơn hàng không hợp lệ", HttpStatus.BAD_REQUEST),
 
     // System errors
-    INTERNAL_ERROR("S50001", "Lỗi hệ thống", HttpStatus.INTERNAL_SERVER_ERROR);
+    INTERNAL_ERROR("S50001", "Lỗi hệ thống", HttpStatus.INTERNAL_SERVER_ERROR),
+    SERVICE_BUSY("S50301", "Hệ thống đang quá tải, vui lòng thử lại sau", HttpStatus.SERVICE_UNAVAILABLE);
 
     public final String code;
     public final String message;
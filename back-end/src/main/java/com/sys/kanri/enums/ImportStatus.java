@@ -0,0 +1,8 @@
+package com.sys.kanri.enums;
+
+public enum ImportStatus {
+    QUEUED,    // Đã nhận file, đang chờ thread import
+    RUNNING,
+    COMPLETED,
+    FAILED     // Dừng giữa chừng: các batch trước đó đã được lưu, xem imported
+}
@@ -0,0 +1,10 @@
+package com.sys.kanri.enums;
+
+public enum JwtAlgorithm {
+    // HMAC với jwt.secret: chỉ service giữ secret mới xác thực được token
+    HS256,
+    // ECDSA P-256, khóa công khai được công bố qua JWKS
+    ES256,
+    // Ed25519: ký và xác thực nhanh hơn ES256, chữ ký ngắn
+    EDDSA
+}
@@ -4,6 +4,7 @@ import com.sys.kanri.dto.ApiErrorResponse;
 import com.sys.kanri.utils.ResponseFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -42,6 +43,19 @@ public class GlobalExceptionHandler {
         return ResponseFactory.error(ex.getCode(), ex.getMessage(), ex.getStatus());
     }
 
+    /**
+     * Xử lý request bị rate limiter từ chối: như ApiException, kèm header Retry-After (giây, làm tròn lên).
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiErrorResponse> handleTooManyRequests(TooManyRequestsException ex) {
+        logger.warn("Rate limited: Code[{}], retry after {}", ex.getCode(), ex.getRetryAfter());
+        ResponseEntity<ApiErrorResponse> response = ResponseFactory.error(ex.getCode(), ex.getMessage(), ex.getStatus());
+        long seconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .body(response.getBody());
+    }
+
     /**
      * Xử lý lỗi validation cho RequestBody DTOs (@Valid).
      */
@@ -0,0 +1,19 @@
+package com.sys.kanri.exceptions;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * {@link ApiException} of a request rejected by a rate limiter, answered with a {@code Retry-After} header.
+ */
+@Getter
+public class TooManyRequestsException extends ApiException {
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, String code, HttpStatus status, Duration retryAfter) {
+        super(message, code, status);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -2,6 +2,7 @@ package com.sys.kanri.mapper;
 
 import com.sys.kanri.dto.response.MemberResDto;
 import com.sys.kanri.entities.Member;
+import com.sys.kanri.repositories.projections.MemberView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -11,4 +12,6 @@ public interface MemberMapper {
 
     @Mapping(target = "role", source = "role.name")
     MemberResDto toDto(Member member);
+
+    MemberResDto toDto(MemberView view);
 }
@@ -1,19 +1,100 @@
 package com.sys.kanri.repositories;
 
 import com.sys.kanri.entities.Member;
-import org.springframework.data.domain.Page;
+import com.sys.kanri.enums.RoleType;
+import com.sys.kanri.repositories.projections.MemberSuggestView;
+import com.sys.kanri.repositories.projections.MemberView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
+    // Nạp role cùng member: Member được dùng làm principal (getAuthorities) ngoài transaction
+    @EntityGraph(attributePaths = "role")
     Optional<Member> findByUsername(String username);
-    @Query("SELECT m FROM members m WHERE lower(m.username) LIKE lower(concat('%', :keyword, '%')) OR lower(m.email) LIKE lower(concat('%', :keyword, '%'))")
-    Page<Member> searchByKeyword(String username, String email, Pageable pageable);
+    // Chỉ chọn các cột cần cho MemberResDto, join sẵn tên role trong cùng một câu SQL
+    String MEMBER_VIEW_SELECT = "SELECT m.id AS id, m.username AS username, m.email AS email, m.fullName AS fullName, "
+            + "m.phone AS phone, m.address AS address, m.gender AS gender, m.imageUrl AS imageUrl, "
+            + "m.isActive AS active, m.createdAt AS createdAt, COALESCE(m.updatedAt, m.createdAt) AS updatedAt, "
+            + "r.name AS role FROM members m JOIN m.role r ";
+    String MEMBER_VIEW_NATIVE_SELECT = "SELECT m.id AS \"id\", m.username AS \"username\", m.email AS \"email\", "
+            + "m.full_name AS \"fullName\", m.phone AS \"phone\", m.address AS \"address\", m.gender AS \"gender\", "
+            + "m.image_url AS \"imageUrl\", (m.is_active = 1) AS \"active\", m.created_at AS \"createdAt\", "
+            + "COALESCE(m.updated_at, m.created_at) AS \"updatedAt\", "
+            + "r.name AS \"role\" FROM members m JOIN roles r ON r.id = m.role_id ";
+
+    @Query(MEMBER_VIEW_SELECT + "WHERE m.id = :id")
+    Optional<MemberView> findViewById(Long id);
+    // Chỉ đọc phiên bản để trả 304 mà không nạp cả bản ghi
+    @Query("SELECT COALESCE(m.updatedAt, m.createdAt) FROM members m WHERE m.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(Long id);
+    // Trả về Slice để Spring Data không tự chạy count(*); tổng số được lấy qua MemberCountCache
+    @Query(MEMBER_VIEW_SELECT)
+    Slice<MemberView> findViewSliceBy(Pageable pageable);
+    // Thành viên của một role: luôn phân trang, tổng số lấy riêng qua countByRoleName
+    @Query(MEMBER_VIEW_SELECT + "WHERE r.name = :role ORDER BY m.id")
+    Slice<MemberView> findViewSliceByRole(RoleType role, Pageable pageable);
+    long countByRoleName(RoleType name);
+    // Tìm kiếm dùng index GIN pg_trgm trên lower(username/email/full_name), xếp hạng theo độ tương đồng.
+    // keyword: từ khóa đã chuẩn hóa (chữ thường); pattern: '%keyword%' đã escape ký tự đại diện của LIKE
+    @Query(value = MEMBER_VIEW_NATIVE_SELECT + """
+            WHERE lower(m.username) LIKE :pattern OR lower(m.email) LIKE :pattern OR lower(m.full_name) LIKE :pattern
+            ORDER BY greatest(similarity(lower(m.username), :keyword),
+                              similarity(lower(m.email), :keyword),
+                              similarity(lower(m.full_name), :keyword)) DESC, m.id
+            """, nativeQuery = true)
+    Slice<MemberView> searchByKeyword(String keyword, String pattern, Pageable pageable);
+    @Query(value = """
+            SELECT count(*) FROM members m
+            WHERE lower(m.username) LIKE :pattern OR lower(m.email) LIKE :pattern OR lower(m.full_name) LIKE :pattern
+            """, nativeQuery = true)
+    long countByKeyword(String pattern);
+    // Keyset: điều kiện createdAt <= :createdAt cho phép dùng index (created_at, id) thay vì OFFSET
+    @Query(MEMBER_VIEW_SELECT + "WHERE m.createdAt <= :createdAt AND (m.createdAt < :createdAt OR m.id < :id) ORDER BY m.createdAt DESC, m.id DESC")
+    List<MemberView> findPageAfter(LocalDateTime createdAt, Long id, Limit limit);
+    @Query(MEMBER_VIEW_SELECT + "WHERE (lower(m.username) LIKE :pattern OR lower(m.email) LIKE :pattern OR lower(m.fullName) LIKE :pattern) AND m.createdAt <= :createdAt AND (m.createdAt < :createdAt OR m.id < :id) ORDER BY m.createdAt DESC, m.id DESC")
+    List<MemberView> searchPageAfter(String pattern, LocalDateTime createdAt, Long id, Limit limit);
+    // Đọc tuần tự toàn bộ thành viên để dựng MemberSuggestIndex (cần chạy trong transaction)
+    @Query("SELECT m.id AS id, m.username AS username, m.email AS email, m.fullName AS fullName FROM members m")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<MemberSuggestView> streamSuggestViews();
+    // Thành viên được tạo hoặc sửa sau since (trên bất kỳ instance nào), dùng index idx_members_updated_at
+    @Query("SELECT m.id AS id, m.username AS username, m.email AS email, m.fullName AS fullName FROM members m WHERE m.updatedAt > :since")
+    List<MemberSuggestView> findSuggestViewsUpdatedAfter(LocalDateTime since);
+    // Nhật ký xóa: instance khác đọc để bỏ thành viên đã xóa khỏi MemberSuggestIndex
+    @Modifying
+    @Query(value = "INSERT INTO member_deletions (member_id, deleted_at) VALUES (:id, :deletedAt)", nativeQuery = true)
+    void logDeletion(Long id, LocalDateTime deletedAt);
+    @Query(value = "SELECT member_id FROM member_deletions WHERE deleted_at > :since", nativeQuery = true)
+    List<Long> findIdsDeletedAfter(LocalDateTime since);
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM member_deletions WHERE deleted_at < :before", nativeQuery = true)
+    int deleteDeletionsBefore(LocalDateTime before);
+    @Query("SELECT m.id AS id, m.username AS username, m.email AS email, m.fullName AS fullName FROM members m WHERE m.username IN :usernames")
+    List<MemberSuggestView> findSuggestViewsByUsernameIn(Collection<String> usernames);
+    // Kiểm tra trùng lặp theo lô: một câu SQL cho cả batch thay vì một exists cho mỗi dòng
+    @Query("SELECT m.username FROM members m WHERE m.username IN :usernames")
+    Set<String> findExistingUsernames(Collection<String> usernames);
+    @Query("SELECT m.email FROM members m WHERE m.email IN :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 }
@@ -0,0 +1,48 @@
+package com.sys.kanri.repositories;
+
+import com.sys.kanri.entities.RefreshToken;
+import com.sys.kanri.repositories.projections.IssuedAccessTokenView;
+import com.sys.kanri.repositories.projections.RefreshTokenView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+    @Query("SELECT t.tokenHash AS tokenHash, t.familyId AS familyId, t.memberId AS memberId, m.username AS username, "
+            + "t.issuedAt AS issuedAt, t.expiresAt AS expiresAt, t.usedAt AS usedAt, t.revokedAt AS revokedAt "
+            + "FROM RefreshToken t JOIN members m ON m.id = t.memberId WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshTokenView> findViewByTokenHash(String tokenHash);
+    // Access token cấp sau since có thể còn hiệu lực
+    @Query("SELECT t.accessJti AS accessJti, t.issuedAt AS issuedAt FROM RefreshToken t "
+            + "WHERE t.memberId = :memberId AND t.accessJti IS NOT NULL AND t.issuedAt > :since")
+    List<IssuedAccessTokenView> findAccessTokensByMemberId(Long memberId, LocalDateTime since);
+    @Query("SELECT t.accessJti AS accessJti, t.issuedAt AS issuedAt FROM RefreshToken t "
+            + "WHERE t.familyId = :familyId AND t.accessJti IS NOT NULL AND t.issuedAt > :since")
+    List<IssuedAccessTokenView> findAccessTokensByFamilyId(UUID familyId, LocalDateTime since);
+    // Đánh dấu đã dùng có điều kiện: chỉ một request (trên mọi instance) đổi được token, trả về 0 nếu token đã dùng/thu hồi
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = :now WHERE t.tokenHash = :tokenHash AND t.usedAt IS NULL AND t.revokedAt IS NULL")
+    int markUsed(String tokenHash, LocalDateTime now);
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(UUID familyId, LocalDateTime now);
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.memberId = :memberId AND t.revokedAt IS NULL")
+    int revokeAllByMemberId(Long memberId, LocalDateTime now);
+    // Xóa theo lô, mỗi lô một transaction để không giữ khóa lâu trên bảng lớn
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_tokens WHERE token_hash IN (
+                SELECT token_hash FROM refresh_tokens WHERE expires_at < :now LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteExpiredBatch(LocalDateTime now, int batchSize);
+}
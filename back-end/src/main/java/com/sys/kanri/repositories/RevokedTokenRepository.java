@@ -0,0 +1,33 @@
+package com.sys.kanri.repositories;
+
+import com.sys.kanri.entities.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+    // Một jti có thể bị thu hồi hai lần (logout rồi đổi mật khẩu), lần sau bỏ qua
+    @Modifying
+    @Query(value = """
+            INSERT INTO revoked_tokens (jti, expires_at, revoked_at) VALUES (:jti, :expiresAt, :revokedAt)
+            ON CONFLICT (jti) DO NOTHING
+            """, nativeQuery = true)
+    int insertIgnoringDuplicate(UUID jti, LocalDateTime expiresAt, LocalDateTime revokedAt);
+    // Xóa theo lô, mỗi lô một transaction để không giữ khóa lâu trên bảng lớn
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM revoked_tokens WHERE jti IN (
+                SELECT jti FROM revoked_tokens WHERE expires_at < :now LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteExpiredBatch(LocalDateTime now, int batchSize);
+}
@@ -0,0 +1,12 @@
+package com.sys.kanri.repositories.projections;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The access token issued together with a refresh token.
+ */
+public interface IssuedAccessTokenView {
+    UUID getAccessJti();
+    LocalDateTime getIssuedAt();
+}
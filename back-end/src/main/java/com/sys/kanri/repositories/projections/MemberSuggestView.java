@@ -0,0 +1,11 @@
+package com.sys.kanri.repositories.projections;
+
+/**
+ * Columns needed to build the in-memory member suggestion index.
+ */
+public interface MemberSuggestView {
+    Long getId();
+    String getUsername();
+    String getEmail();
+    String getFullName();
+}
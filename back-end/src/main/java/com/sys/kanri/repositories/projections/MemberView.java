@@ -0,0 +1,22 @@
+package com.sys.kanri.repositories.projections;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a member with only the columns {@code MemberResDto} needs, joined to the role name.
+ * Selected directly in SQL so listings never hydrate managed {@code Member} entities.
+ */
+public interface MemberView {
+    Long getId();
+    String getUsername();
+    String getEmail();
+    String getFullName();
+    String getPhone();
+    String getAddress();
+    String getGender();
+    String getImageUrl();
+    Boolean getActive();
+    String getRole();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,18 @@
+package com.sys.kanri.repositories.projections;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A stored refresh token together with the username of its member.
+ */
+public interface RefreshTokenView {
+    String getTokenHash();
+    UUID getFamilyId();
+    Long getMemberId();
+    String getUsername();
+    LocalDateTime getIssuedAt();
+    LocalDateTime getExpiresAt();
+    LocalDateTime getUsedAt();
+    LocalDateTime getRevokedAt();
+}
@@ -0,0 +1,267 @@
+package com.sys.kanri.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sys.kanri.entities.RevokedToken;
+import com.sys.kanri.repositories.RevokedTokenRepository;
+import com.sys.kanri.utils.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked access tokens, keyed by their {@code jti} claim.
+ *
+ * <p>{@link JwtAuthenticationFilter} checks every request against a bloom filter kept in memory, so
+ * a token that was never revoked costs a few bit reads and no database access. Only a filter hit is
+ * confirmed against {@code revoked_tokens}, which rules out false positives.
+ *
+ * <p>The filter is split into generations, one per access-token lifetime, and a jti is added to the
+ * generation in which its token expires. Once a generation lies entirely in the past it is dropped
+ * as a whole, which is how entries age out without deleting bits. Revocations made on other
+ * instances are picked up by polling {@code revoked_tokens}.
+ */
+@Slf4j
+@Component
+public class AccessTokenDenylist {
+
+    // Bù sai lệch giữa exp thật của token và exp do nơi gọi revoke tính ra
+    private static final Duration EXPIRY_SLACK = Duration.ofMinutes(1);
+    // Đọc lại một khoảng chồng lấn để không bỏ sót dòng commit muộn trên instance khác
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(30);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long windowMillis;
+    private final int bitsPerGeneration;
+    private final int hashCount;
+    private final int purgeBatchSize;
+    private final ConcurrentMap<Long, BloomFilter> generations = new ConcurrentHashMap<>();
+    // jti đã xác nhận bị thu hồi, để token bị dùng lại liên tục không truy vấn DB mỗi lần
+    private final Cache<UUID, Boolean> confirmed;
+    private final Counter rejected;
+    private final Counter falsePositives;
+    private final Clock clock;
+    private volatile LocalDateTime lastPolledAt;
+
+    @Autowired
+    public AccessTokenDenylist(
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${jwt.expiration}") long jwtExpiration,
+            @Value("${security.token-revocation.expected-insertions:100000}") int expectedInsertions,
+            @Value("${security.token-revocation.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${security.token-revocation.purge-batch-size:1000}") int purgeBatchSize,
+            MeterRegistry meterRegistry) {
+        this(revokedTokenRepository, jwtExpiration, expectedInsertions, falsePositiveRate, purgeBatchSize,
+                meterRegistry, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Reads the current time from {@code clock}, so tests can move time across generations.
+     */
+    AccessTokenDenylist(
+            RevokedTokenRepository revokedTokenRepository,
+            long jwtExpiration,
+            int expectedInsertions,
+            double falsePositiveRate,
+            int purgeBatchSize,
+            MeterRegistry meterRegistry,
+            Clock clock) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.clock = clock;
+        this.windowMillis = jwtExpiration;
+        // Kích thước tối ưu: m = -n ln p / (ln 2)^2, k = m / n ln 2
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitsPerGeneration = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitsPerGeneration / expectedInsertions * Math.log(2)));
+        this.purgeBatchSize = purgeBatchSize;
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(jwtExpiration))
+                .build();
+        this.rejected = Counter.builder("security.token.revoked.rejected")
+                .description("Requests rejected because their access token was revoked")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("security.token.revoked.false-positives")
+                .description("Bloom filter hits that were not revoked in the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::add);
+        lastPolledAt = now;
+    }
+
+    /**
+     * Tells whether a verified access token has been revoked.
+     *
+     * @param token the verified token
+     * @return {@code true} if the token's jti is in {@code revoked_tokens}
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        UUID jti = parseJti(token.id());
+        if (jti == null || !mightContain(jti)) {
+            // Token cấp trước khi có claim jti không thể bị thu hồi, chỉ chờ hết hạn
+            return false;
+        }
+        if (confirmed.getIfPresent(jti) != null) {
+            rejected.increment();
+            return true;
+        }
+        if (revokedTokenRepository.existsById(jti)) {
+            confirmed.put(jti, Boolean.TRUE);
+            rejected.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Revokes an access token until it expires.
+     *
+     * @param jti       the {@code jti} claim of the token
+     * @param expiresAt the expiry of the token
+     */
+    @Transactional
+    public void revoke(UUID jti, LocalDateTime expiresAt) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (!expiresAt.isAfter(now)) {
+            return;
+        }
+        LocalDateTime until = expiresAt.plus(EXPIRY_SLACK);
+        revokedTokenRepository.insertIgnoringDuplicate(jti, until, now);
+        // Thêm vào bloom filter khi dòng đã được lưu; nếu rollback, token vẫn hợp lệ như trong DB
+        AfterCommit.run(() -> add(jti, until));
+    }
+
+    /**
+     * Adds tokens revoked on other instances and drops generations whose tokens have all expired.
+     */
+    @Scheduled(fixedDelayString = "${security.token-revocation.poll-interval:5s}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(lastPolledAt.minus(POLL_OVERLAP), now)
+                .forEach(this::add);
+        lastPolledAt = now;
+
+        long current = generationOf(now);
+        generations.keySet().removeIf(generation -> generation < current);
+    }
+
+    /**
+     * Deletes rows of tokens that have expired in batches.
+     */
+    @Scheduled(fixedDelayString = "${security.token-revocation.purge-interval:1h}",
+            initialDelayString = "${security.token-revocation.purge-interval:1h}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = revokedTokenRepository.deleteExpiredBatch(now, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        if (total > 0) {
+            log.info("Purged {} expired revoked tokens", total);
+        }
+    }
+
+    private void add(RevokedToken token) {
+        add(token.getJti(), token.getExpiresAt());
+    }
+
+    private void add(UUID jti, LocalDateTime expiresAt) {
+        generations.computeIfAbsent(generationOf(expiresAt),
+                generation -> new BloomFilter(bitsPerGeneration, hashCount)).add(jti);
+    }
+
+    private boolean mightContain(UUID jti) {
+        // Chỉ có 2-3 thế hệ còn sống: token hết hạn trong vòng một vòng đời access token
+        for (BloomFilter filter : generations.values()) {
+            if (filter.mightContain(jti)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long generationOf(LocalDateTime time) {
+        return time.atZone(clock.getZone()).toInstant().toEpochMilli() / windowMillis;
+    }
+
+    private static UUID parseJti(String id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lock-free bloom filter over UUIDs. A random UUID already carries 122 random bits, so its two
+     * halves are used directly as the two base hashes (Kirsch–Mitzenmacher double hashing).
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int bitCount, int hashCount) {
+            this.words = new AtomicLongArray((bitCount + 63) >>> 6);
+            this.bitCount = (long) words.length() << 6;
+            this.hashCount = hashCount;
+        }
+
+        void add(UUID value) {
+            long h1 = value.getMostSignificantBits();
+            long h2 = value.getLeastSignificantBits();
+            for (int i = 0; i < hashCount; i++) {
+                long bit = index(h1 + i * h2);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(UUID value) {
+            long h1 = value.getMostSignificantBits();
+            long h2 = value.getLeastSignificantBits();
+            for (int i = 0; i < hashCount; i++) {
+                long bit = index(h1 + i * h2);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(long hash) {
+            return (hash & Long.MAX_VALUE) % bitCount;
+        }
+    }
+}
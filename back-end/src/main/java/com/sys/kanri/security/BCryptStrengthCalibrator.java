@@ -0,0 +1,52 @@
+package com.sys.kanri.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Picks the BCrypt strength whose hash time on the current hardware stays within a target latency.
+ * Only the minimum strength is measured; each extra round doubles the cost, so higher
+ * strengths are extrapolated to keep startup fast.
+ */
+public final class BCryptStrengthCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+    private static final int SAMPLES = 3;
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    /**
+     * @param target      the maximum acceptable time for one hash
+     * @param minStrength the lowest strength allowed, used even if it exceeds the target
+     * @param maxStrength the highest strength allowed
+     * @return the highest strength in {@code [minStrength, maxStrength]} that meets the target
+     */
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        encoder.encode("calibration"); // warm-up
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        long baseNanos = Math.max(samples[SAMPLES / 2], 1);
+
+        int strength = minStrength;
+        long targetNanos = target.toNanos();
+        while (strength < maxStrength && baseNanos << (strength + 1 - minStrength) <= targetNanos) {
+            strength++;
+        }
+
+        logger.info("BCrypt strength calibrated to {} (strength {} took {} ms, target {} ms)",
+                strength, minStrength, baseNanos / 1_000_000, target.toMillis());
+        return strength;
+    }
+}
@@ -1,5 +1,6 @@
 package com.sys.kanri.security;
 
+import com.sys.kanri.enums.AuthMode;
 import com.sys.kanri.services.MemberService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,7 +9,9 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -16,6 +19,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collection;
 
 @RequiredArgsConstructor
 @Component
@@ -23,6 +27,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final MemberService memberService;
+    private final PrincipalCache principalCache;
+    private final AccessTokenDenylist accessTokenDenylist;
+
+    @Value("${jwt.auth-mode:database}")
+    private AuthMode authMode;
 
     @Override
     protected void doFilterInternal(
@@ -31,20 +40,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain) throws ServletException, IOException {
 
         String jwt = getTokenFromRequest(request);
-        if (jwt != null) {
-            String username = jwtService.extractUsername(jwt);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                var userDetails = memberService.loadUserByUsername(username);
+        if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Chỉ xác thực chữ ký và parse JWT một lần cho mỗi request
+            VerifiedToken token = jwtService.parseToken(jwt);
 
-                if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
-                    var authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+            // Bloom filter trong bộ nhớ, chỉ truy vấn DB khi jti có thể đã bị thu hồi
+            if (token != null && token.subject() != null && !accessTokenDenylist.isRevoked(token)) {
+                if (authMode == AuthMode.CLAIMS) {
+                    authenticateFromClaims(token, request);
+                } else {
+                    // Lấy principal từ cache, chỉ truy vấn DB khi cache miss
+                    JwtPrincipal principal = principalCache.get(token.subject(), memberService::loadPrincipal);
+                    authenticate(principal, principal.authorities(), request);
                 }
             }
         }
@@ -52,6 +59,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Builds the principal from the verified token claims alone (no JPA access).
+     * Revoked tokens are already rejected by {@link AccessTokenDenylist} before this point.
+     */
+    private void authenticateFromClaims(VerifiedToken token, HttpServletRequest request) {
+        // Không có claim role thì không dựng được quyền: từ chối token thay vì xác thực không có quyền nào
+        if (token.role() == null) {
+            return;
+        }
+
+        JwtPrincipal principal = JwtPrincipal.of(token.userId(), token.subject(), token.role());
+        authenticate(principal, principal.authorities(), request);
+    }
+
+    private void authenticate(Object principal, Collection<? extends GrantedAuthority> authorities, HttpServletRequest request) {
+        var authToken = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
     // Helper method: Ưu tiên Header, sau đó mới tìm Cookie
     private String getTokenFromRequest(HttpServletRequest request) {
         // 1. Check Header
@@ -0,0 +1,40 @@
+package com.sys.kanri.security;
+
+import com.sys.kanri.entities.Member;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Lightweight, immutable principal: the member id, username and role, never the password hash.
+ * Built from verified JWT claims in {@code jwt.auth-mode=claims}, where the request path never
+ * touches JPA, and from the member row in {@code database} mode, where {@link PrincipalCache} keeps it.
+ *
+ * @param id          the member id ({@code uid} claim)
+ * @param username    the username (token subject)
+ * @param role        the role name ({@code role} claim)
+ * @param authorities the authorities derived from the role
+ */
+public record JwtPrincipal(Long id, String username, String role, List<GrantedAuthority> authorities) implements Principal {
+
+    public static JwtPrincipal of(Long id, String username, String role) {
+        List<GrantedAuthority> authorities = role != null
+                ? List.of(new SimpleGrantedAuthority("ROLE_" + role))
+                : List.of();
+        return new JwtPrincipal(id, username, role, authorities);
+    }
+
+    /**
+     * Copies the fields of a member loaded with its role; the entity itself is not retained.
+     */
+    public static JwtPrincipal of(Member member) {
+        return of(member.getId(), member.getUsername(), member.getRole().getName().name());
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -1,71 +1,144 @@
 package com.sys.kanri.security;
 
-import io.jsonwebtoken.Claims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_USER_ID = "uid";
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    @Value("${jwt.refresh-expiration}")
-    private long refreshExpiration;
+    @Value("${jwt.cache.enabled:true}")
+    private boolean tokenCacheEnabled;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long tokenCacheMaxSize;
+
+    private final MeterRegistry meterRegistry;
+    private final JwtSigningKeys signingKeys;
 
-    private SecretKey secretKey;
     private io.jsonwebtoken.JwtParser jwtParser;
+    // Cache claims đã xác thực theo digest của token, null nếu bị tắt
+    private Cache<String, VerifiedToken> tokenCache;
 
     @PostConstruct
     public void init() {
-        this.secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
         this.jwtParser = Jwts.parser()
-                .verifyWith(secretKey)
+                // Chọn khóa xác thực theo header kid, kid lạ bị từ chối
+                .keyLocator(new LocatorAdapter<>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        Key key = signingKeys.verificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown signing key id: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
                 .build();
+
+        if (tokenCacheEnabled) {
+            // Mỗi entry sống đến đúng thời điểm exp của token
+            this.tokenCache = Caffeine.newBuilder()
+                    .maximumSize(tokenCacheMaxSize)
+                    .expireAfter(Expiry.creating((String key, VerifiedToken token) -> timeToExpiry(token)))
+                    .recordStats()
+                    .build();
+            Gauge.builder("jwt.token.cache.size", tokenCache, Cache::estimatedSize)
+                    .description("Number of verified tokens held in the cache")
+                    .register(meterRegistry);
+            Gauge.builder("jwt.token.cache.hit.ratio", tokenCache, cache -> cache.stats().hitRatio())
+                    .description("Ratio of token lookups served without signature verification")
+                    .register(meterRegistry);
+        }
     }
 
     /**
-     * Trích xuất username từ JWT.
+     * Xác thực chữ ký và phân tích JWT một lần duy nhất.
+     * Parser đã kiểm tra thời hạn nên token trả về luôn còn hiệu lực tại thời điểm gọi.
      * @param token Chuỗi JWT cần phân tích.
-     * @return Username được trích xuất.
+     * @return Các claims đã xác thực, hoặc null nếu token không hợp lệ hoặc hết hạn.
      */
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public VerifiedToken parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        if (tokenCache == null) {
+            return verify(token);
+        }
+
+        // Token lặp lại được lấy từ cache, bỏ qua bước kiểm tra chữ ký và parse JSON
+        String key = digest(token);
+        VerifiedToken cached = tokenCache.getIfPresent(key);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        VerifiedToken verified = verify(token);
+        if (verified != null) {
+            tokenCache.put(key, verified);
+        }
+        return verified;
+    }
+
+    private VerifiedToken verify(String token) {
+        try {
+            return VerifiedToken.from(jwtParser.parseSignedClaims(token).getPayload());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
     /**
-     * Trích xuất một claim bất kỳ từ JWT.
-     * Sử dụng JwtParser được khởi tạo sẵn để tối ưu hiệu suất.
-     * @param token Chuỗi JWT.
-     * @param claimsResolver Hàm để lấy claim mong muốn từ Claims.
-     * @param <T> Kiểu dữ liệu của claim.
-     * @return Claim được trích xuất.
+     * Hashes the compact token with SHA-256 so the cache key is short and collision resistant.
+     * {@link RefreshTokenService} stores refresh tokens under the same hash.
      */
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
+    static String digest(String token) {
         try {
-            final Claims claims = jwtParser.parseSignedClaims(token).getPayload();
-            return claimsResolver.apply(claims);
-        } catch (JwtException e) {
-            // Xử lý các lỗi liên quan đến JWT tại đây (ví dụ: token hết hạn, chữ ký không khớp)
-            // Có thể throw một exception tùy chỉnh hoặc trả về null.
-            return null;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 
+    private Duration timeToExpiry(VerifiedToken token) {
+        if (token.expiration() == null) {
+            return Duration.ofMillis(jwtExpiration);
+        }
+        Duration remaining = Duration.between(Instant.now(), token.expiration().toInstant());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
     /**
      * Generates an access token with optional extra claims and a specified username.
      * The token is built using the configured JWT expiration time.
@@ -75,60 +148,33 @@ public class JwtService {
      * @return A signed JWT access token as a string.
      */
     public String generateAccessToken(Map<String, Object> extraClaims, String username) {
-        return buildToken(extraClaims, username, jwtExpiration);
+        return generateAccessToken(extraClaims, username, UUID.randomUUID());
     }
 
     /**
-     * Generates a signed JWT refresh token associated with the specified username.
-     * The token is built using the configured refresh token expiration time.
+     * Generates an access token with a caller-chosen {@code jti}, so the caller can record it
+     * (e.g. next to the refresh token) and revoke the token later through {@link AccessTokenDenylist}.
      *
-     * @param username The username to associate with the refresh token.
-     * @return A signed JWT refresh token as a string.
+     * @param extraClaims Additional claims to include in the token.
+     * @param username The username to associate with the token.
+     * @param jti The token id.
+     * @return A signed JWT access token as a string.
      */
-    public String generateRefreshToken(String username) {
-        return buildToken(new HashMap<>(), username, refreshExpiration);
+    public String generateAccessToken(Map<String, Object> extraClaims, String username, UUID jti) {
+        return buildToken(extraClaims, username, jti);
     }
 
-    /**
-     * Sinh JWT mới với các claim tùy chỉnh.
-     * @param extraClaims Các claims bổ sung.
-     * @param username Tên người dùng.
-     * @return Chuỗi JWT đã được ký.
-     */
-    public String buildToken(Map<String, Object> extraClaims, String username, long expiration) {
+    private String buildToken(Map<String, Object> extraClaims, String username, UUID jti) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + expiration);
+        Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .claims(extraClaims)
+                .id(jti.toString()) // jti: định danh để thu hồi token trước hạn
                 .subject(username)
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(secretKey)
-                .compact();
-    }
-
-    /**
-     * Kiểm tra token hợp lệ (username và thời gian).
-     * @param token Chuỗi JWT.
-     * @param username Tên người dùng để so sánh.
-     * @return true nếu token hợp lệ, false nếu không.
-     */
-    public boolean isTokenValid(String token, String username) {
-        try {
-            final String extractedUsername = extractUsername(token);
-            return extractedUsername != null && extractedUsername.equals(username) && !isTokenExpired(token);
-        } catch (JwtException e) {
-            return false;
-        }
-    }
-
-    private boolean isTokenExpired(String token) {
-        Date expiration = extractClaim(token, Claims::getExpiration);
-        return expiration != null && expiration.before(new Date());
-    }
-
-    public long getExpiration() {
-        return jwtExpiration;
+                .expiration(expiryDate);
+        // Ký bằng khóa đang hoạt động (HS256/ES256/EdDSA) và gắn header kid
+        return signingKeys.sign(builder).compact();
     }
-}
\ No newline at end of file
+}
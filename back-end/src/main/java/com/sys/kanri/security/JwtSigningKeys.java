@@ -0,0 +1,187 @@
+package com.sys.kanri.security;
+
+import com.sys.kanri.enums.JwtAlgorithm;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.*;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.*;
+
+/**
+ * Signing keys of the access tokens, identified by the {@code kid} header.
+ *
+ * <p>With {@code HS256} tokens are signed with {@code jwt.secret}. With {@code ES256} or {@code EDDSA}
+ * every private-key entry of the PKCS12 keystore {@code jwt.signing.keystore.location} is a key,
+ * its alias being the {@code kid}; the entry named by {@code jwt.signing.active-kid} signs new tokens
+ * and all entries verify. Their public halves are published as a JWK set (see {@code JwksController})
+ * so other services verify tokens locally.
+ *
+ * <p>Rotation: add the new key to the keystore and deploy, wait until JWKS caches have expired,
+ * switch {@code active-kid}, and remove the old key once the last token it signed has expired.
+ * Without a keystore an ephemeral key pair is generated, but only under the {@code dev} profile:
+ * such a key dies with the instance, so every restart would invalidate all tokens and no other
+ * instance could verify them. Any other profile refuses to start.
+ */
+@Slf4j
+@Component
+public class JwtSigningKeys {
+
+    private static final String DEV_PROFILE = "dev";
+
+    private final JwtAlgorithm algorithm;
+    private final Map<String, SigningKey> keys;
+    private final SigningKey active;
+
+    public JwtSigningKeys(
+            @Value("${jwt.signing.algorithm:HS256}") JwtAlgorithm algorithm,
+            @Value("${jwt.secret:}") String secret,
+            @Value("${jwt.signing.keystore.location:}") String keystoreLocation,
+            @Value("${jwt.signing.keystore.password:}") String keystorePassword,
+            @Value("${jwt.signing.active-kid:}") String activeKid,
+            Environment environment) {
+        this.algorithm = algorithm;
+        if (algorithm == JwtAlgorithm.HS256) {
+            SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+            // kid không để lộ secret, chỉ phân biệt các secret khác nhau
+            this.active = new SigningKey(JwtService.digest(secret).substring(0, 8), algorithm, key, key);
+            this.keys = Map.of(active.kid(), active);
+        } else if (keystoreLocation.isBlank()) {
+            if (!environment.acceptsProfiles(Profiles.of(DEV_PROFILE))) {
+                throw new IllegalStateException("jwt.signing.keystore.location is required for " + algorithm
+                        + " outside the '" + DEV_PROFILE + "' profile");
+            }
+            this.active = generate(algorithm);
+            this.keys = Map.of(active.kid(), active);
+            log.warn("jwt.signing.keystore.location is not set, signing with ephemeral {} key {}; "
+                    + "tokens become invalid on restart and are not accepted by other instances", algorithm, active.kid());
+        } else {
+            this.keys = load(algorithm, keystoreLocation, keystorePassword.toCharArray());
+            String kid = activeKid.isBlank() && keys.size() == 1 ? keys.keySet().iterator().next() : activeKid;
+            this.active = keys.get(kid);
+            if (active == null) {
+                throw new IllegalStateException("jwt.signing.active-kid '" + activeKid + "' is not a key of " + keystoreLocation);
+            }
+        }
+        log.info("JWT signing with {} key {} ({} verification keys)", algorithm, active.kid(), keys.size());
+    }
+
+    /**
+     * Signs the token with the active key and sets its {@code kid} header.
+     */
+    public JwtBuilder sign(JwtBuilder builder) {
+        builder.header().keyId(active.kid());
+        return switch (active.algorithm()) {
+            case HS256 -> builder.signWith((SecretKey) active.signingKey(), Jwts.SIG.HS256);
+            case ES256 -> builder.signWith((PrivateKey) active.signingKey(), Jwts.SIG.ES256);
+            case EDDSA -> builder.signWith((PrivateKey) active.signingKey(), Jwts.SIG.EdDSA);
+        };
+    }
+
+    /**
+     * Returns the key that verifies tokens with the given {@code kid}, or {@code null} if unknown.
+     * HMAC tokens issued before the {@code kid} header was added have none and map to the secret.
+     */
+    public Key verificationKey(String kid) {
+        if (kid == null) {
+            return algorithm == JwtAlgorithm.HS256 ? active.verificationKey() : null;
+        }
+        SigningKey key = keys.get(kid);
+        return key != null ? key.verificationKey() : null;
+    }
+
+    /**
+     * Public keys of the key set as JWKs, empty for {@code HS256} (a shared secret is never published).
+     */
+    public List<PublicJwk<?>> publicJwks() {
+        if (algorithm == JwtAlgorithm.HS256) {
+            return List.of();
+        }
+        List<PublicJwk<?>> jwks = new ArrayList<>(keys.size());
+        for (SigningKey key : keys.values()) {
+            jwks.add(Jwks.builder()
+                    .key((PublicKey) key.verificationKey())
+                    .id(key.kid())
+                    .algorithm(key.algorithm() == JwtAlgorithm.ES256 ? "ES256" : "EdDSA")
+                    .publicKeyUse("sig")
+                    .build());
+        }
+        return jwks;
+    }
+
+    public JwtAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    private static SigningKey generate(JwtAlgorithm algorithm) {
+        try {
+            KeyPairGenerator generator;
+            if (algorithm == JwtAlgorithm.ES256) {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            } else {
+                generator = KeyPairGenerator.getInstance("Ed25519");
+            }
+            KeyPair pair = generator.generateKeyPair();
+            String kid = "ephemeral-" + UUID.randomUUID().toString().substring(0, 8);
+            return new SigningKey(kid, algorithm, pair.getPrivate(), pair.getPublic());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate " + algorithm + " key pair", e);
+        }
+    }
+
+    private static Map<String, SigningKey> load(JwtAlgorithm algorithm, String location, char[] password) {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+            Map<String, SigningKey> keys = new LinkedHashMap<>();
+            for (String alias : Collections.list(keyStore.aliases())) {
+                if (!keyStore.isKeyEntry(alias)) {
+                    continue;
+                }
+                PrivateKey privateKey = (PrivateKey) keyStore.getKey(alias, password);
+                PublicKey publicKey = keyStore.getCertificate(alias).getPublicKey();
+                if (!matches(algorithm, publicKey)) {
+                    throw new IllegalStateException("Key '" + alias + "' in " + location + " is not a " + algorithm + " key");
+                }
+                keys.put(alias, new SigningKey(alias, algorithm, privateKey, publicKey));
+            }
+            if (keys.isEmpty()) {
+                throw new IllegalStateException("No private key entry in " + location);
+            }
+            return Map.copyOf(keys);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot load JWT signing keys from " + location, e);
+        }
+    }
+
+    private static boolean matches(JwtAlgorithm algorithm, PublicKey key) {
+        if (algorithm == JwtAlgorithm.ES256) {
+            return key instanceof ECPublicKey ec && ec.getParams().getCurve().getField().getFieldSize() == 256;
+        }
+        return key instanceof EdECPublicKey ed && "Ed25519".equals(ed.getParams().getName());
+    }
+
+    /**
+     * One key of the set. For {@code HS256} both halves are the same secret.
+     */
+    record SigningKey(String kid, JwtAlgorithm algorithm, Key signingKey, Key verificationKey) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.sys.kanri.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sys.kanri.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static com.sys.kanri.enums.ErrorCode.TOO_MANY_LOGIN_ATTEMPTS;
+
+/**
+ * In-process token-bucket limiter for login attempts, keyed per username and per client IP.
+ * Runs before {@code AuthenticationManager}, so rejected attempts cost neither a database lookup
+ * nor a BCrypt compare.
+ *
+ * <p>Each key holds a single {@link AtomicLong} with the bucket's theoretical arrival time (GCRA),
+ * updated with a CAS loop, so the check is lock-free. Keys live in a bounded Caffeine map (striped
+ * like {@code ConcurrentHashMap}) with variable expiry, which Caffeine tracks in a timer wheel;
+ * an entry expires once its bucket would be full again, so idle keys cost no memory.
+ *
+ * <p>A rejection tells the client when the next attempt can succeed: the time until the bucket's
+ * arrival time falls back within the burst tolerance, returned as {@code Retry-After}.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final boolean enabled;
+    private final Bucket usernameBucket;
+    private final Bucket ipBucket;
+    private final Counter usernameRejected;
+    private final Counter ipRejected;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public LoginRateLimiter(
+            @Value("${security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${security.rate-limit.username.capacity:5}") int usernameCapacity,
+            @Value("${security.rate-limit.username.period:1m}") Duration usernamePeriod,
+            @Value("${security.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${security.rate-limit.ip.period:1m}") Duration ipPeriod,
+            @Value("${security.rate-limit.max-keys:100000}") long maxKeys,
+            MeterRegistry meterRegistry) {
+        this(enabled, usernameCapacity, usernamePeriod, ipCapacity, ipPeriod, maxKeys, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * Reads time from {@code nanoClock} (a {@link System#nanoTime()} equivalent), so tests can move time.
+     */
+    LoginRateLimiter(
+            boolean enabled,
+            int usernameCapacity,
+            Duration usernamePeriod,
+            int ipCapacity,
+            Duration ipPeriod,
+            long maxKeys,
+            MeterRegistry meterRegistry,
+            LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.nanoClock = nanoClock;
+        this.usernameBucket = new Bucket(usernameCapacity, usernamePeriod, maxKeys, nanoClock);
+        this.ipBucket = new Bucket(ipCapacity, ipPeriod, maxKeys, nanoClock);
+        this.usernameRejected = Counter.builder("security.login.rejected")
+                .description("Login attempts rejected by the rate limiter")
+                .tag("key", "username")
+                .register(meterRegistry);
+        this.ipRejected = Counter.builder("security.login.rejected")
+                .description("Login attempts rejected by the rate limiter")
+                .tag("key", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consumes one token from the client IP bucket and one from the username bucket.
+     *
+     * @param username the username sent in the login request
+     * @param clientIp the remote address of the client
+     * @throws TooManyRequestsException with status 429 and the time until the next attempt can
+     *                                   succeed when either bucket is empty
+     */
+    public void check(String username, String clientIp) {
+        long waitNanos = acquire(username, clientIp);
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException(TOO_MANY_LOGIN_ATTEMPTS.message, TOO_MANY_LOGIN_ATTEMPTS.code,
+                    TOO_MANY_LOGIN_ATTEMPTS.status, Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /**
+     * Same as {@link #check} but returns {@code false} instead of throwing.
+     */
+    public boolean tryAcquire(String username, String clientIp) {
+        return acquire(username, clientIp) == 0;
+    }
+
+    /**
+     * Returns 0 if both tokens were consumed, otherwise the nanoseconds until the rejecting bucket
+     * would accept the attempt. The bucket that rejects consumes nothing.
+     */
+    private long acquire(String username, String clientIp) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        if (clientIp != null) {
+            long wait = ipBucket.acquire(key(clientIp), now);
+            if (wait > 0) {
+                ipRejected.increment();
+                return wait;
+            }
+        }
+        if (username != null) {
+            long wait = usernameBucket.acquire(key(username), now);
+            if (wait > 0) {
+                usernameRejected.increment();
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    private static String key(String value) {
+        // Giới hạn độ dài để username rất dài không làm phình bộ nhớ của map
+        String key = value.length() > MAX_KEY_LENGTH ? value.substring(0, MAX_KEY_LENGTH) : value;
+        return key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * GCRA buckets sharing one capacity and refill rate.
+     */
+    private static final class Bucket {
+        private final long emissionNanos;
+        private final long toleranceNanos;
+        private final Cache<String, AtomicLong> states;
+
+        private Bucket(int capacity, Duration period, long maxKeys, LongSupplier nanoClock) {
+            // Mỗi token được nạp lại sau period / capacity; tối đa capacity token liên tiếp
+            this.emissionNanos = Math.max(1, period.toNanos() / capacity);
+            this.toleranceNanos = emissionNanos * capacity;
+            this.states = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .ticker(nanoClock::getAsLong)
+                    .expireAfter(new Expiry<String, AtomicLong>() {
+                        // Không truy cập trong toleranceNanos thì bucket đã đầy lại, xóa entry tương đương reset
+                        @Override
+                        public long expireAfterCreate(@NonNull String key, @NonNull AtomicLong value, long currentTime) {
+                            return toleranceNanos;
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(@NonNull String key, @NonNull AtomicLong value,
+                                                      long currentTime, long currentDuration) {
+                            return toleranceNanos;
+                        }
+
+                        @Override
+                        public long expireAfterRead(@NonNull String key, @NonNull AtomicLong value,
+                                                    long currentTime, long currentDuration) {
+                            return toleranceNanos;
+                        }
+                    })
+                    .build();
+        }
+
+        /**
+         * Returns 0 if a token was consumed, otherwise the nanoseconds until one is available.
+         */
+        private long acquire(String key, long now) {
+            AtomicLong state = states.get(key, k -> new AtomicLong(now));
+            while (true) {
+                long tat = state.get();
+                // So sánh bằng hiệu để an toàn khi System.nanoTime() tràn số
+                long newTat = (tat - now > 0 ? tat : now) + emissionNanos;
+                long excess = newTat - now - toleranceNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (state.compareAndSet(tat, newTat)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.sys.kanri.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} handed to Spring's {@code DaoAuthenticationProvider}: hashing and
+ * verification run on the bounded pool of {@link PasswordHashingService}, while the member lookup
+ * and the rehash write of the provider stay on the request thread. Only CPU work is queued, so
+ * database latency cannot fill the pool and turn into {@code SERVICE_BUSY} responses.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordHashingService passwordHashingService;
+    private final PasswordEncoder delegate;
+
+    public PooledPasswordEncoder(PasswordHashingService passwordHashingService, PasswordEncoder delegate) {
+        this.passwordHashingService = passwordHashingService;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return passwordHashingService.encode(rawPassword.toString());
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return passwordHashingService.matches(rawPassword.toString(), encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Chỉ đọc tiền tố và cost của hash, không cần chạy trên pool
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,59 @@
+package com.sys.kanri.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of authenticated principals, keyed by username.
+ * Lets {@link JwtAuthenticationFilter} skip the member lookup for tokens it has already resolved.
+ * Only the slim {@link JwtPrincipal} is cached, never the member entity and its password hash.
+ * Entries must be evicted once a change to the password, role or existence of a member has
+ * committed; evicted earlier, a concurrent request could cache the old row again for the whole TTL.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, JwtPrincipal> cache;
+
+    public PrincipalCache(
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.principal-cache.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Publish hit/miss/eviction counters qua actuator (cache.gets, cache.evictions, ...)
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principal");
+    }
+
+    /**
+     * Returns the cached principal for the username, loading it once on a miss.
+     *
+     * @param username the username taken from the token subject
+     * @param loader   function that loads the principal from the database
+     * @return the cached or freshly loaded principal
+     */
+    public JwtPrincipal get(String username, Function<String, JwtPrincipal> loader) {
+        return cache.get(username, loader);
+    }
+
+    /**
+     * Removes the cached principal of a member.
+     *
+     * @param username the username whose principal is no longer current
+     */
+    public void evict(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+}
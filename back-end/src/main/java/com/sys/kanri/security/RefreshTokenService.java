@@ -0,0 +1,301 @@
+package com.sys.kanri.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sys.kanri.entities.Member;
+import com.sys.kanri.entities.RefreshToken;
+import com.sys.kanri.exceptions.ApiException;
+import com.sys.kanri.repositories.RefreshTokenRepository;
+import com.sys.kanri.repositories.projections.IssuedAccessTokenView;
+import com.sys.kanri.repositories.projections.RefreshTokenView;
+import com.sys.kanri.utils.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static com.sys.kanri.enums.ErrorCode.REFRESH_TOKEN_INVALID;
+import static com.sys.kanri.enums.ErrorCode.REFRESH_TOKEN_MISSING;
+
+/**
+ * Issues, rotates and revokes opaque refresh tokens.
+ *
+ * <p>A refresh token is 32 random bytes; only its SHA-256 hash is stored in {@code refresh_tokens}.
+ * Every {@link #rotate} marks the presented token as used with a conditional update and issues a
+ * new token in the same family, so presenting a used token again is detected as reuse and revokes
+ * the whole family. The database stays authoritative across instances.
+ *
+ * <p>Active tokens are indexed in memory (hash to member and family) until they expire, so a
+ * refresh needs no lookup join and no member query. Revoking a family or all tokens of a member
+ * is one indexed update plus one entry in a watermark map, independent of how many tokens exist.
+ * In-memory state changes only once the surrounding transaction commits, so a rolled-back password
+ * change or member deletion leaves the tokens usable, as the database does.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final EntityManager entityManager;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final Duration ttl;
+    private final Duration accessTtl;
+    private final int purgeBatchSize;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Cache<String, ActiveToken> activeTokens;
+    private final Cache<UUID, Boolean> revokedFamilies;
+    private final Cache<Long, LocalDateTime> memberRevokedAt;
+    private final Counter reuseDetected;
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            EntityManager entityManager,
+            AccessTokenDenylist accessTokenDenylist,
+            @Value("${jwt.expiration}") long jwtExpiration,
+            @Value("${jwt.refresh-expiration}") long refreshExpiration,
+            @Value("${security.refresh-token.cache-size:100000}") long cacheSize,
+            @Value("${security.refresh-token.purge-batch-size:1000}") int purgeBatchSize,
+            MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.entityManager = entityManager;
+        this.accessTokenDenylist = accessTokenDenylist;
+        this.ttl = Duration.ofMillis(refreshExpiration);
+        this.accessTtl = Duration.ofMillis(jwtExpiration);
+        this.purgeBatchSize = purgeBatchSize;
+        this.activeTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, ActiveToken>() {
+                    // Entry sống đến đúng thời điểm token hết hạn
+                    @Override
+                    public long expireAfterCreate(@NonNull String key, @NonNull ActiveToken value, long currentTime) {
+                        return Math.max(0, Duration.between(LocalDateTime.now(), value.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(@NonNull String key, @NonNull ActiveToken value,
+                                                  long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(@NonNull String key, @NonNull ActiveToken value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        // Sau ttl mọi token cấp trước thời điểm thu hồi đều đã hết hạn, không cần giữ watermark nữa
+        this.revokedFamilies = Caffeine.newBuilder().expireAfterWrite(ttl).build();
+        this.memberRevokedAt = Caffeine.newBuilder().expireAfterWrite(ttl).build();
+        this.reuseDetected = Counter.builder("security.refresh-token.reuse")
+                .description("Refresh tokens presented again after rotation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts a new token family for a member who has just logged in.
+     *
+     * @param member    the authenticated member
+     * @param accessJti the {@code jti} of the access token issued alongside
+     * @return the opaque refresh token to hand to the client
+     */
+    @Transactional
+    public String issue(Member member, UUID accessJti) {
+        return issue(UUID.randomUUID(), member.getId(), member.getUsername(), accessJti);
+    }
+
+    /**
+     * Exchanges a refresh token for a new one in the same family.
+     * A token that was already used revokes its whole family.
+     *
+     * @param presented the refresh token sent by the client
+     * @param accessJti the {@code jti} of the access token issued alongside the new refresh token
+     * @return the new token and the username it belongs to
+     * @throws ApiException with status 401 when the token is missing, 403 when it is unknown,
+     *                      expired, revoked or reused
+     */
+    @Transactional(noRollbackFor = ApiException.class)
+    public Rotation rotate(String presented, UUID accessJti) {
+        if (presented == null || presented.isEmpty()) {
+            throw new ApiException(REFRESH_TOKEN_MISSING.message, REFRESH_TOKEN_MISSING.code, REFRESH_TOKEN_MISSING.status);
+        }
+        String hash = JwtService.digest(presented);
+        ActiveToken token = find(hash);
+        LocalDateTime now = LocalDateTime.now();
+        if (token == null || !token.expiresAt().isAfter(now) || isRevoked(token)) {
+            throw invalid();
+        }
+
+        // Update có điều kiện: chỉ một request đổi được token, kể cả khi chạy nhiều instance
+        activeTokens.invalidate(hash);
+        if (refreshTokenRepository.markUsed(hash, now) == 0) {
+            rejectUnmarked(hash, token, now);
+        }
+        return new Rotation(issue(token.familyId(), token.memberId(), token.username(), accessJti), token.username());
+    }
+
+    /**
+     * Revokes the family of a refresh token and the access tokens issued with it (logout).
+     * Unknown tokens are ignored.
+     *
+     * @param presented the refresh token sent by the client, may be {@code null}
+     */
+    @Transactional
+    public void revoke(String presented) {
+        if (presented == null || presented.isEmpty()) {
+            return;
+        }
+        String hash = JwtService.digest(presented);
+        ActiveToken token = find(hash);
+        activeTokens.invalidate(hash);
+        if (token != null) {
+            revokeFamily(token.familyId(), LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Revokes every refresh token of a member and the access tokens that may still be valid,
+     * e.g. after a password change.
+     *
+     * @param memberId the member id
+     */
+    @Transactional
+    public void revokeAll(Long memberId) {
+        LocalDateTime now = LocalDateTime.now();
+        AfterCommit.run(() -> memberRevokedAt.put(memberId, now));
+        revokeAccessTokens(refreshTokenRepository.findAccessTokensByMemberId(memberId, now.minus(accessTtl)));
+        refreshTokenRepository.revokeAllByMemberId(memberId, now);
+    }
+
+    /**
+     * Deletes expired tokens in batches so the table only holds tokens that can still be presented.
+     */
+    @Scheduled(fixedDelayString = "${security.refresh-token.purge-interval:1h}",
+            initialDelayString = "${security.refresh-token.purge-interval:1h}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        int deleted;
+        do {
+            // Mỗi lô là một transaction riêng (xem RefreshTokenRepository#deleteExpiredBatch)
+            deleted = refreshTokenRepository.deleteExpiredBatch(now, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        if (total > 0) {
+            log.info("Purged {} expired refresh tokens", total);
+        }
+    }
+
+    private String issue(UUID familyId, Long memberId, String username, UUID accessJti) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String hash = JwtService.digest(value);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+
+        // persist thay vì save: id do ứng dụng gán nên save() sẽ SELECT trước khi merge
+        entityManager.persist(RefreshToken.builder()
+                .tokenHash(hash)
+                .familyId(familyId)
+                .memberId(memberId)
+                .accessJti(accessJti)
+                .issuedAt(now)
+                .expiresAt(expiresAt)
+                .build());
+        ActiveToken token = new ActiveToken(familyId, memberId, username, now, expiresAt);
+        AfterCommit.run(() -> activeTokens.put(hash, token));
+        return value;
+    }
+
+    private ActiveToken find(String hash) {
+        ActiveToken token = activeTokens.getIfPresent(hash);
+        if (token != null) {
+            return token;
+        }
+        // Không có trong index (instance khác cấp hoặc đã bị đẩy ra): đọc từ DB
+        RefreshTokenView view = refreshTokenRepository.findViewByTokenHash(hash).orElse(null);
+        if (view == null) {
+            return null;
+        }
+        if (view.getRevokedAt() != null) {
+            return null;
+        }
+        // Token đã đổi (usedAt != null) vẫn được trả về để markUsed trả 0 và thu hồi cả họ
+        return new ActiveToken(view.getFamilyId(), view.getMemberId(), view.getUsername(),
+                view.getIssuedAt(), view.getExpiresAt());
+    }
+
+    /**
+     * Handles a token the conditional update did not mark. The row is read again to tell real reuse
+     * (already used, family still active) from a token revoked meanwhile, e.g. by a logout on another
+     * instance while this instance still indexed it as active; only reuse is counted and revokes the family.
+     */
+    private void rejectUnmarked(String hash, ActiveToken token, LocalDateTime now) {
+        RefreshTokenView current = refreshTokenRepository.findViewByTokenHash(hash).orElse(null);
+        if (current == null || current.getRevokedAt() != null) {
+            // Đã bị thu hồi (hoặc đã bị xóa cùng member): từ chối, họ token đã được xử lý ở nơi thu hồi
+            if (current != null) {
+                AfterCommit.run(() -> revokedFamilies.put(token.familyId(), Boolean.TRUE));
+            }
+            throw invalid();
+        }
+        reuseDetected.increment();
+        log.warn("Refresh token reuse detected, revoking family {} of member {}", token.familyId(), token.memberId());
+        revokeFamily(token.familyId(), now);
+        throw invalid();
+    }
+
+    private boolean isRevoked(ActiveToken token) {
+        if (revokedFamilies.getIfPresent(token.familyId()) != null) {
+            return true;
+        }
+        LocalDateTime revokedAt = memberRevokedAt.getIfPresent(token.memberId());
+        return revokedAt != null && !token.issuedAt().isAfter(revokedAt);
+    }
+
+    private void revokeFamily(UUID familyId, LocalDateTime now) {
+        AfterCommit.run(() -> revokedFamilies.put(familyId, Boolean.TRUE));
+        revokeAccessTokens(refreshTokenRepository.findAccessTokensByFamilyId(familyId, now.minus(accessTtl)));
+        refreshTokenRepository.revokeFamily(familyId, now);
+    }
+
+    private void revokeAccessTokens(List<IssuedAccessTokenView> accessTokens) {
+        // exp thật của access token lệch vài ms so với issuedAt + accessTtl, AccessTokenDenylist đã cộng khoảng bù
+        for (IssuedAccessTokenView accessToken : accessTokens) {
+            accessTokenDenylist.revoke(accessToken.getAccessJti(), accessToken.getIssuedAt().plus(accessTtl));
+        }
+    }
+
+    private static ApiException invalid() {
+        return new ApiException(REFRESH_TOKEN_INVALID.message, REFRESH_TOKEN_INVALID.code, REFRESH_TOKEN_INVALID.status);
+    }
+
+    /**
+     * Result of a successful rotation.
+     *
+     * @param refreshToken the new opaque refresh token
+     * @param username     the member the token belongs to
+     */
+    public record Rotation(String refreshToken, String username) {
+    }
+
+    private record ActiveToken(UUID familyId, Long memberId, String username,
+                               LocalDateTime issuedAt, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.sys.kanri.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been verified.
+ * Produced once per request by {@link JwtService#parseToken(String)} so callers never re-parse the token.
+ *
+ * @param id           the {@code jti} claim, {@code null} for tokens issued before it was added
+ * @param subject      the username (token subject)
+ * @param expiration   the expiry time of the token
+ * @param role         the {@code role} claim
+ * @param userId       the {@code uid} claim
+ */
+public record VerifiedToken(String id, String subject, Date expiration, String role, Long userId) {
+
+    static VerifiedToken from(Claims claims) {
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.getExpiration(),
+                claims.get(JwtService.CLAIM_ROLE, String.class),
+                claims.get(JwtService.CLAIM_USER_ID, Long.class)
+        );
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -5,4 +5,5 @@ import com.sys.kanri.dto.response.AuthResDto;
 public interface AuthService {
     AuthResDto authenticate(String username, String password);
     AuthResDto refreshToken(String refreshToken);
+    void logout(String refreshToken);
 }
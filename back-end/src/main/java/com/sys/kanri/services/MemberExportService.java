@@ -0,0 +1,10 @@
+package com.sys.kanri.services;
+
+import com.sys.kanri.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface MemberExportService {
+    void exportMembers(ExportFormat format, OutputStream out) throws IOException;
+}
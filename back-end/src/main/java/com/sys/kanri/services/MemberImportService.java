@@ -0,0 +1,14 @@
+package com.sys.kanri.services;
+
+import com.sys.kanri.dto.response.MemberImportResDto;
+import com.sys.kanri.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface MemberImportService {
+    MemberImportResDto startImport(ExportFormat format, InputStream in, String mode) throws IOException;
+
+    MemberImportResDto getImport(UUID id);
+}
@@ -3,18 +3,30 @@ package com.sys.kanri.services;
 import com.sys.kanri.dto.request.ChangePasswordReqDto;
 import com.sys.kanri.dto.request.MemberSearchReqDto;
 import com.sys.kanri.dto.request.RegisterReqDto;
+import com.sys.kanri.dto.response.CursorPaginationResDto;
 import com.sys.kanri.dto.response.MemberResDto;
+import com.sys.kanri.dto.response.MemberSuggestionResDto;
 import com.sys.kanri.dto.response.PaginationResDto;
 import com.sys.kanri.entities.Member;
+import com.sys.kanri.enums.RoleType;
+import com.sys.kanri.security.JwtPrincipal;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
-public interface MemberService extends UserDetailsService {
+public interface MemberService extends UserDetailsService, UserDetailsPasswordService {
     Optional<Member> findByUsername(String username);
+    JwtPrincipal loadPrincipal(String username);
     MemberResDto getMemberById(Long id);
+    LocalDateTime getMemberVersion(Long id);
     void deleteById(Long id);
     void registerMember(RegisterReqDto member, String mode);
     void changePassword(String username, ChangePasswordReqDto request);
     PaginationResDto<MemberResDto> getAllMember(MemberSearchReqDto request);
+    CursorPaginationResDto<MemberResDto> getMembersByCursor(MemberSearchReqDto request);
+    PaginationResDto<MemberResDto> getMembersByRole(RoleType role, MemberSearchReqDto request);
+    List<MemberSuggestionResDto> suggestMembers(String prefix, int limit);
 }
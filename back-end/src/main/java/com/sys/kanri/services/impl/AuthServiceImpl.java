@@ -4,19 +4,21 @@ import com.sys.kanri.dto.response.AuthResDto;
 import com.sys.kanri.entities.Member;
 
 import com.sys.kanri.exceptions.ApiException;
+import com.sys.kanri.security.JwtPrincipal;
 import com.sys.kanri.security.JwtService;
+import com.sys.kanri.security.PrincipalCache;
+import com.sys.kanri.security.RefreshTokenService;
 import com.sys.kanri.services.AuthService;
 import com.sys.kanri.services.MemberService;
-import jakarta.servlet.http.Cookie;
-import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
+import java.util.UUID;
 
 import static com.sys.kanri.enums.ErrorCode.*;
 
@@ -27,6 +29,8 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final MemberService memberService;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final PrincipalCache principalCache;
 
     /**
      * Authenticates a user using the provided username and password,
@@ -35,7 +39,8 @@ public class AuthServiceImpl implements AuthService {
      *
      * <p>Steps performed:
      * <ul>
-     *   <li>Authenticate credentials using Spring {@link AuthenticationManager}.</li>
+     *   <li>Authenticate credentials using Spring {@link AuthenticationManager}; a stored hash with an
+     *       outdated cost is upgraded through {@link MemberService#updatePassword}.</li>
      *   <li>Load user details from {@link MemberService}.</li>
      *   <li>Generate JWT using {@link JwtService}.</li>
      *   <li>Create an HttpOnly cookie containing the JWT and attach it to the response.</li>
@@ -48,14 +53,17 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public AuthResDto authenticate(String username, String password) {
         try {
+            // Chỉ phần so khớp BCrypt chạy trên pool băm mật khẩu (PooledPasswordEncoder), truy vấn DB ở thread hiện tại
             authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
         } catch (AuthenticationException e) {
             throw new ApiException(INVALID_CREDENTIALS.message, INVALID_CREDENTIALS.code, INVALID_CREDENTIALS.status);
         }
 
         Member memberDetail = (Member) memberService.loadUserByUsername(username);
-        String accessToken = jwtService.generateAccessToken(Map.of("role", memberDetail.getRole().getName()), memberDetail.getUsername());
-        String refreshToken = jwtService.generateRefreshToken(memberDetail.getUsername());
+        // jti của access token được lưu cùng refresh token để logout/đổi mật khẩu thu hồi được cả access token
+        UUID accessJti = UUID.randomUUID();
+        String accessToken = jwtService.generateAccessToken(accessClaims(JwtPrincipal.of(memberDetail)), memberDetail.getUsername(), accessJti);
+        String refreshToken = refreshTokenService.issue(memberDetail, accessJti);
 
         AuthResDto result = new AuthResDto();
         result.setAccessToken(accessToken);
@@ -63,32 +71,51 @@ public class AuthServiceImpl implements AuthService {
         return result;
     }
 
+    /**
+     * Rotates the refresh token and issues a new access token.
+     * The member is resolved through {@link PrincipalCache}, so a refresh normally needs no member query.
+     *
+     * @param refreshToken the refresh token sent by the client
+     * @return the new access token and the new refresh token
+     * @throws ApiException with status 401 if the member of the token no longer exists
+     */
     @Override
     public AuthResDto refreshToken(String refreshToken) {
-        // 1. Kiểm tra token có null không
-        if (refreshToken == null || refreshToken.isEmpty()) {
-            throw new ApiException("Refresh Token không tồn tại", "AUTH_401", HttpStatus.UNAUTHORIZED);
-        }
+        // 1. Đổi refresh token: token đã dùng hoặc bị thu hồi sẽ bị từ chối (và thu hồi cả họ token)
+        UUID accessJti = UUID.randomUUID();
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken, accessJti);
 
-        // 2. Lấy username từ token
-        String username = jwtService.extractUsername(refreshToken);
-        Member member = (Member) memberService.loadUserByUsername(username);
-
-        // 3. Validate token
-        if (!jwtService.isTokenValid(refreshToken, member.getUsername())) {
-            throw new ApiException("Refresh Token hết hạn hoặc không hợp lệ", "AUTH_403", HttpStatus.FORBIDDEN);
+        // 2. Tạo Access Token mới
+        JwtPrincipal principal;
+        try {
+            principal = principalCache.get(rotation.username(), memberService::loadPrincipal);
+        } catch (UsernameNotFoundException e) {
+            // Member đã bị xóa (trên instance khác) sau khi token được cấp: thu hồi token vừa đổi và trả về 401
+            refreshTokenService.revoke(rotation.refreshToken());
+            throw new ApiException(UNAUTHORIZED_ACCESS.message, UNAUTHORIZED_ACCESS.code, UNAUTHORIZED_ACCESS.status);
         }
+        String newAccessToken = jwtService.generateAccessToken(accessClaims(principal), principal.username(), accessJti);
 
-        // 4. Tạo Access Token mới
-        String newAccessToken = jwtService.generateAccessToken(
-                Map.of("role", member.getRole().getName()),
-                member.getUsername()
-        );
-
-        // 5. Trả về
+        // 3. Trả về cả hai token mới
         AuthResDto result = new AuthResDto();
         result.setAccessToken(newAccessToken);
-        result.setRefreshToken(refreshToken); // Giữ nguyên refresh token cũ (hoặc tạo mới nếu muốn xoay vòng)
+        result.setRefreshToken(rotation.refreshToken());
         return result;
     }
+
+    @Override
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+    }
+
+    /**
+     * Builds the claims embedded in an access token. They are enough to rebuild the
+     * principal without a database lookup when {@code jwt.auth-mode=claims}.
+     */
+    private Map<String, Object> accessClaims(JwtPrincipal principal) {
+        return Map.of(
+                JwtService.CLAIM_ROLE, principal.role(),
+                JwtService.CLAIM_USER_ID, principal.id()
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.sys.kanri.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of member totals used by the paginated search, keyed by the normalized keyword.
+ * Avoids a {@code count(*)} per page request; invalidated once an addition or removal of members
+ * has committed, so a reader in between cannot cache the old total again.
+ */
+@Component
+public class MemberCountCache {
+
+    private final Cache<String, Long> cache;
+
+    public MemberCountCache(
+            @Value("${member.count-cache.max-size:1000}") long maxSize,
+            @Value("${member.count-cache.ttl:30s}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "member-count");
+    }
+
+    /**
+     * Normalizes a search keyword so equivalent searches share one cache entry.
+     *
+     * @param keyword the raw keyword, may be {@code null}
+     * @return the trimmed, lower-cased keyword, or an empty string when there is none
+     */
+    public static String normalize(String keyword) {
+        return keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public long get(String normalizedKeyword, Supplier<Long> counter) {
+        return cache.get(normalizedKeyword, key -> counter.get());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
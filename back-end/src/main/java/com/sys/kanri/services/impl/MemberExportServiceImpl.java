@@ -0,0 +1,147 @@
+package com.sys.kanri.services.impl;
+
+import com.sys.kanri.enums.ExportFormat;
+import com.sys.kanri.services.MemberExportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Service
+public class MemberExportServiceImpl implements MemberExportService {
+
+    private static final String EXPORT_SQL = """
+            SELECT m.id, m.username, m.email, m.full_name, m.phone, m.address, m.gender, m.image_url,
+                   m.is_active, r.name AS role, m.created_at
+            FROM members m JOIN roles r ON r.id = m.role_id
+            ORDER BY m.id
+            """;
+    private static final String[] COLUMNS = {
+            "id", "username", "email", "fullName", "phone", "address", "gender", "imageUrl", "active", "role", "createdAt"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+
+    public MemberExportServiceImpl(
+            DataSource dataSource,
+            JsonMapper jsonMapper,
+            @Value("${member.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Trong transaction (autocommit = false), driver PostgreSQL dùng cursor và chỉ giữ fetchSize dòng trong bộ nhớ
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Streams every member to the output, one row at a time, from a forward-only JDBC cursor.
+     * Rows are never collected in memory, so heap usage does not depend on the number of members.
+     *
+     * @param format NDJSON (one JSON object per line) or CSV with a header row
+     * @param out    the destination stream; it is flushed but not closed
+     * @throws IOException if writing to the output fails
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportMembers(ExportFormat format, OutputStream out) throws IOException {
+        try {
+            if (format == ExportFormat.CSV) {
+                exportCsv(out);
+            } else {
+                exportNdjson(out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportNdjson(OutputStream out) {
+        // Bỏ dấu cách Jackson chèn giữa các giá trị gốc: mỗi bản ghi tự kết thúc bằng '\n', kể cả bản ghi cuối
+        try (JsonGenerator generator = jsonMapper.writer()
+                .withRootValueSeparator((String) null)
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .createGenerator(out)) {
+            jdbcTemplate.query(EXPORT_SQL, (RowCallbackHandler) rs -> {
+                generator.writeStartObject();
+                generator.writeNumberProperty(COLUMNS[0], rs.getLong("id"));
+                generator.writeStringProperty(COLUMNS[1], rs.getString("username"));
+                generator.writeStringProperty(COLUMNS[2], rs.getString("email"));
+                generator.writeStringProperty(COLUMNS[3], rs.getString("full_name"));
+                generator.writeStringProperty(COLUMNS[4], rs.getString("phone"));
+                generator.writeStringProperty(COLUMNS[5], rs.getString("address"));
+                generator.writeStringProperty(COLUMNS[6], rs.getString("gender"));
+                generator.writeStringProperty(COLUMNS[7], rs.getString("image_url"));
+                generator.writeBooleanProperty(COLUMNS[8], rs.getInt("is_active") == 1);
+                generator.writeStringProperty(COLUMNS[9], rs.getString("role"));
+                generator.writeStringProperty(COLUMNS[10], createdAt(rs));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    private void exportCsv(OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+            jdbcTemplate.query(EXPORT_SQL, (RowCallbackHandler) rs -> {
+                try {
+                    writer.write(Long.toString(rs.getLong("id")));
+                    writeCsvField(writer, rs.getString("username"));
+                    writeCsvField(writer, rs.getString("email"));
+                    writeCsvField(writer, rs.getString("full_name"));
+                    writeCsvField(writer, rs.getString("phone"));
+                    writeCsvField(writer, rs.getString("address"));
+                    writeCsvField(writer, rs.getString("gender"));
+                    writeCsvField(writer, rs.getString("image_url"));
+                    writeCsvField(writer, Boolean.toString(rs.getInt("is_active") == 1));
+                    writeCsvField(writer, rs.getString("role"));
+                    writeCsvField(writer, createdAt(rs));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (quote) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+
+    private static String createdAt(ResultSet rs) throws SQLException {
+        var createdAt = rs.getTimestamp("created_at");
+        return createdAt != null ? createdAt.toLocalDateTime().toString() : null;
+    }
+}
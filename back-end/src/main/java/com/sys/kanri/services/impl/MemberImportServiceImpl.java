@@ -0,0 +1,561 @@
+package com.sys.kanri.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sys.kanri.dto.request.RegisterReqDto;
+import com.sys.kanri.dto.response.MemberImportResDto;
+import com.sys.kanri.dto.response.MemberImportResDto.RowError;
+import com.sys.kanri.enums.ExportFormat;
+import com.sys.kanri.enums.ImportStatus;
+import com.sys.kanri.enums.RoleType;
+import com.sys.kanri.exceptions.ApiException;
+import com.sys.kanri.repositories.MemberRepository;
+import com.sys.kanri.repositories.projections.MemberSuggestView;
+import com.sys.kanri.services.MemberImportService;
+import com.sys.kanri.utils.CsvRecordReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.sys.kanri.enums.ErrorCode.*;
+
+/**
+ * Bulk member import, run as a background job. The upload is first copied to a temporary file so the
+ * request returns immediately with a job id; the job then reads the file and processes rows in batches:
+ * validation and in-file duplicate checks per row, then per batch one uniqueness query for usernames
+ * and one for emails, parallel BCrypt hashing on a dedicated pool, and a single set-based insert
+ * whose ids are reserved from {@code members_seq} in blocks.
+ * Only the current batch with its usernames/emails and the first errors are kept in memory: duplicates of
+ * rows from earlier batches are caught by the uniqueness queries, since those batches are already committed.
+ *
+ * <p>Batches commit independently, so the progress of a job (rows read, imported and failed) is what a
+ * caller uses to see how far an import got, also when it stops early. Jobs live in the memory of the
+ * instance that accepted the upload and are forgotten {@code member.import.job-ttl} after they finish.
+ */
+@Service
+public class MemberImportServiceImpl implements MemberImportService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemberImportServiceImpl.class);
+
+    // Một câu INSERT cho cả batch: mỗi cột được truyền dưới dạng mảng và unnest thành các dòng.
+    // ON CONFLICT bỏ qua dòng bị trùng do ghi đồng thời; RETURNING cho biết dòng nào đã được thêm
+    private static final String INSERT_SQL = """
+            INSERT INTO members (id, username, password, full_name, email, phone, address, gender, image_url,
+                                 role_id, is_active, created_at, updated_at)
+            SELECT u.id, u.username, u.password, u.full_name, u.email, u.phone, u.address, u.gender, u.image_url,
+                   ?, 1, ?, ?
+            FROM unnest(?::bigint[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[])
+                 AS u(id, username, password, full_name, email, phone, address, gender, image_url)
+            ON CONFLICT DO NOTHING
+            RETURNING id, username, email, full_name
+            """;
+    private static final String SEQUENCE_INCREMENT_SQL =
+            "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = 'members_seq'";
+    private static final String NEXT_IDS_SQL = "SELECT nextval('members_seq') FROM generate_series(1, ?)";
+
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+    private final PasswordEncoder passwordEncoder;
+    private final MemberRepository memberRepository;
+    private final RoleRegistry roleRegistry;
+    private final MemberCountCache memberCountCache;
+    private final MemberSuggestIndex memberSuggestIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool hashingPool;
+    private final ThreadPoolExecutor jobExecutor;
+    private final Cache<UUID, ImportRun> jobs;
+    private final int batchSize;
+    private final int maxErrors;
+    private final Counter importedCounter;
+    private final Counter failedCounter;
+
+    public MemberImportServiceImpl(
+            JsonMapper jsonMapper,
+            Validator validator,
+            PasswordEncoder passwordEncoder,
+            MemberRepository memberRepository,
+            RoleRegistry roleRegistry,
+            MemberCountCache memberCountCache,
+            MemberSuggestIndex memberSuggestIndex,
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${member.import.batch-size:1000}") int batchSize,
+            @Value("${member.import.max-errors:1000}") int maxErrors,
+            @Value("${member.import.hash-parallelism:0}") int hashParallelism,
+            @Value("${member.import.concurrent-jobs:1}") int concurrentJobs,
+            @Value("${member.import.queue-capacity:10}") int queueCapacity,
+            @Value("${member.import.job-ttl:1h}") Duration jobTtl) {
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+        this.passwordEncoder = passwordEncoder;
+        this.memberRepository = memberRepository;
+        this.roleRegistry = roleRegistry;
+        this.memberCountCache = memberCountCache;
+        this.memberSuggestIndex = memberSuggestIndex;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+
+        // Pool riêng cho import, mặc định dùng một nửa số CPU để đăng nhập vẫn còn tài nguyên băm mật khẩu
+        int parallelism = hashParallelism > 0
+                ? hashParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashingPool = new ForkJoinPool(parallelism, pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("member-import-hash-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+
+        // Hàng đợi đầy thì từ chối ngay (503) thay vì giữ file tạm của quá nhiều job
+        this.jobExecutor = new ThreadPoolExecutor(
+                concurrentJobs, concurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("member-import-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Job đang chạy không hết hạn; job đã xong được ghi lại một lần nữa và giữ thêm jobTtl
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(Expiry.writing((UUID id, ImportRun run) -> run.isFinished() ? jobTtl : Duration.ofDays(365)))
+                .build();
+
+        this.importedCounter = Counter.builder("member.import.rows")
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("member.import.rows")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accepts a CSV file (header row with {@code RegisterReqDto} property names) or NDJSON (one
+     * {@code RegisterReqDto} object per line) and imports it in the background.
+     * Invalid or duplicate rows are skipped and reported; valid rows are imported even if others fail.
+     *
+     * @param format the format of the input
+     * @param in     the uploaded file, copied to a temporary file before this method returns
+     * @param mode   {@code SUPPORT} to import support accounts, anything else imports customers
+     * @return the queued job; poll {@link #getImport(UUID)} for its progress
+     * @throws IOException if the upload cannot be read or stored
+     * @throws ApiException with {@code SERVICE_BUSY} if too many imports are already queued
+     */
+    @Override
+    public MemberImportResDto startImport(ExportFormat format, InputStream in, String mode) throws IOException {
+        RoleType type = RoleType.SUPPORT.name().equalsIgnoreCase(mode) ? RoleType.SUPPORT : RoleType.CUSTOMER;
+        ImportRun run = new ImportRun(UUID.randomUUID(), roleRegistry.id(type));
+
+        // Body của request chỉ đọc được trong request: lưu ra file tạm để job đọc sau
+        Path file = Files.createTempFile("member-import-", "." + format.extension);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            in.transferTo(out);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+
+        jobs.put(run.id, run);
+        try {
+            jobExecutor.execute(() -> execute(run, format, file));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(run.id);
+            deleteQuietly(file);
+            throw new ApiException(SERVICE_BUSY.message, SERVICE_BUSY.code, SERVICE_BUSY.status);
+        }
+        logger.info("Member import {} queued ({}, {} bytes)", run.id, format, Files.size(file));
+        return run.toResDto();
+    }
+
+    /**
+     * @param id the id returned by {@link #startImport}
+     * @return the current progress of the job, or its result once finished
+     * @throws ApiException with {@code IMPORT_NOT_FOUND} if the job is unknown to this instance or has expired
+     */
+    @Override
+    public MemberImportResDto getImport(UUID id) {
+        ImportRun run = jobs.getIfPresent(id);
+        if (run == null) {
+            throw new ApiException(IMPORT_NOT_FOUND.message, IMPORT_NOT_FOUND.code, IMPORT_NOT_FOUND.status);
+        }
+        return run.toResDto();
+    }
+
+    private void execute(ImportRun run, ExportFormat format, Path file) {
+        run.startedAt = LocalDateTime.now();
+        run.status = ImportStatus.RUNNING;
+        long start = System.nanoTime();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), 64 * 1024)) {
+            if (format == ExportFormat.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+            run.flush();
+            run.finish(ImportStatus.COMPLETED, null);
+        } catch (IOException e) {
+            logger.warn("Member import {} stopped after {} rows: {}", run.id, run.total, e.getMessage());
+            run.finish(ImportStatus.FAILED, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Member import {} failed after {} rows", run.id, run.total, e);
+            run.finish(ImportStatus.FAILED, INTERNAL_ERROR.message);
+        } finally {
+            if (run.imported > 0) {
+                memberCountCache.invalidateAll();
+            }
+            deleteQuietly(file);
+            // Ghi lại để Caffeine tính thời hạn của job đã xong
+            jobs.put(run.id, run);
+        }
+
+        logger.info("Member import {} {} in {} ms: {} rows, {} imported, {} failed", run.id, run.status,
+                (System.nanoTime() - start) / 1_000_000, run.total, run.imported, run.failed);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete import file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long number = ++run.total;
+            try {
+                run.accept(number, jsonMapper.readValue(line, RegisterReqDto.class));
+            } catch (JacksonException e) {
+                run.fail(number, null, "Dòng JSON không hợp lệ: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        header = header.stream().map(String::trim).toList();
+
+        List<String> record;
+        while ((record = nextRecord(csv, run)) != null) {
+            if (record.stream().allMatch(String::isBlank)) {
+                continue;
+            }
+            long number = ++run.total;
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size() && i < record.size(); i++) {
+                if (!record.get(i).isEmpty()) {
+                    values.put(header.get(i), record.get(i));
+                }
+            }
+            try {
+                run.accept(number, jsonMapper.convertValue(values, RegisterReqDto.class));
+            } catch (JacksonException | IllegalArgumentException e) {
+                run.fail(number, values.get("username"), "Dòng CSV không hợp lệ: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads the next CSV record. A malformed record is reported as a failed row instead of failing the
+     * whole import; it ends the input because an unclosed quote runs to the end of the file.
+     */
+    private static List<String> nextRecord(CsvRecordReader csv, ImportRun run) throws IOException {
+        try {
+            return csv.next();
+        } catch (CsvRecordReader.MalformedRecordException e) {
+            run.fail(++run.total, null, "Dòng CSV không hợp lệ: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Inserts a batch of validated rows and returns the rows that were actually inserted.
+     */
+    private List<InsertedMember> insert(List<PendingRow> rows, long roleId) {
+        int size = rows.size();
+        String[][] columns = new String[8][size];
+        for (int i = 0; i < size; i++) {
+            RegisterReqDto request = rows.get(i).request();
+            columns[0][i] = request.getUsername();
+            columns[1][i] = rows.get(i).passwordHash();
+            columns[2][i] = request.getFullName();
+            columns[3][i] = request.getEmail();
+            columns[4][i] = request.getPhone();
+            columns[5][i] = request.getAddress();
+            columns[6][i] = request.getGender();
+            columns[7][i] = request.getImageUrl();
+        }
+        Long[] ids = allocateIds(size);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_SQL);
+            ps.setLong(1, roleId);
+            ps.setTimestamp(2, now);
+            ps.setTimestamp(3, now);
+            ps.setArray(4, con.createArrayOf("bigint", ids));
+            for (int c = 0; c < columns.length; c++) {
+                ps.setArray(c + 5, con.createArrayOf("text", columns[c]));
+            }
+            return ps;
+        }, (rs, rowNum) -> new InsertedMember(
+                rs.getLong("id"), rs.getString("username"), rs.getString("email"), rs.getString("full_name")));
+    }
+
+    /**
+     * Reserves ids from {@code members_seq} the same way Hibernate's pooled optimizer does: each
+     * {@code nextval} is the upper bound of a block of {@code INCREMENT BY} ids. Ids handed out here
+     * therefore never collide with ids Hibernate allocates for {@code registerMember}.
+     */
+    private Long[] allocateIds(int count) {
+        Integer increment = jdbcTemplate.queryForObject(SEQUENCE_INCREMENT_SQL, Integer.class);
+        int blockSize = increment != null && increment > 0 ? increment : 1;
+        Long[] ids = new Long[count];
+        int filled = 0;
+        while (filled < count) {
+            int blocks = (count - filled + blockSize - 1) / blockSize;
+            List<Long> upperBounds = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, blocks);
+            for (long upper : upperBounds) {
+                // Bỏ qua id < 1 ở khối đầu tiên của một sequence mới
+                for (long id = Math.max(1, upper - blockSize + 1); id <= upper && filled < count; id++) {
+                    ids[filled++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void destroy() {
+        // Job đang chạy dừng ở batch kế tiếp; các batch đã lưu vẫn giữ nguyên
+        jobExecutor.shutdownNow();
+        hashingPool.shutdown();
+    }
+
+    private record PendingRow(long number, RegisterReqDto request, String passwordHash) {
+    }
+
+    private record InsertedMember(Long id, String username, String email, String fullName) implements MemberSuggestView {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public String getFullName() {
+            return fullName;
+        }
+    }
+
+    /**
+     * State of one import job. Only the job thread writes it; the progress fields are volatile so
+     * status requests read up-to-date counts.
+     */
+    private final class ImportRun {
+        private final UUID id;
+        private final long roleId;
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<RowError> errors = new CopyOnWriteArrayList<>();
+        private List<PendingRow> batch = new ArrayList<>();
+        private volatile ImportStatus status = ImportStatus.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String message;
+        private volatile long total;
+        private volatile long imported;
+        private volatile long failed;
+
+        private ImportRun(UUID id, long roleId) {
+            this.id = id;
+            this.roleId = roleId;
+        }
+
+        private boolean isFinished() {
+            return status == ImportStatus.COMPLETED || status == ImportStatus.FAILED;
+        }
+
+        private void finish(ImportStatus status, String message) {
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        private MemberImportResDto toResDto() {
+            long failed = this.failed;
+            List<RowError> errors = List.copyOf(this.errors);
+            return new MemberImportResDto(id, status, startedAt, finishedAt, total, imported, failed,
+                    errors, failed > errors.size(), message);
+        }
+
+        private void accept(long number, RegisterReqDto request) {
+            Set<ConstraintViolation<RegisterReqDto>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                fail(number, request.getUsername(), violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            // Chỉ so với các dòng trong batch hiện tại, dòng của batch trước đã được kiểm tra bằng truy vấn DB
+            if (seenUsernames.contains(request.getUsername())) {
+                fail(number, request.getUsername(), "Username bị trùng lặp trong file");
+                return;
+            }
+            if (seenEmails.contains(request.getEmail())) {
+                fail(number, request.getUsername(), "Email bị trùng lặp trong file");
+                return;
+            }
+            seenUsernames.add(request.getUsername());
+            seenEmails.add(request.getEmail());
+
+            batch.add(new PendingRow(number, request, null));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Member import " + id + " interrupted");
+            }
+            List<PendingRow> rows = batch;
+            batch = new ArrayList<>(batchSize);
+            seenUsernames.clear();
+            seenEmails.clear();
+
+            // 1. Kiểm tra trùng với dữ liệu đã có: 2 câu truy vấn cho cả batch
+            Set<String> existingUsernames = memberRepository.findExistingUsernames(
+                    rows.stream().map(row -> row.request().getUsername()).toList());
+            Set<String> existingEmails = memberRepository.findExistingEmails(
+                    rows.stream().map(row -> row.request().getEmail()).toList());
+            List<PendingRow> fresh = new ArrayList<>(rows.size());
+            for (PendingRow row : rows) {
+                if (existingUsernames.contains(row.request().getUsername())) {
+                    fail(row.number(), row.request().getUsername(), USERNAME_EXISTS.message);
+                } else if (existingEmails.contains(row.request().getEmail())) {
+                    fail(row.number(), row.request().getUsername(), EMAIL_EXISTS.message);
+                } else {
+                    fresh.add(row);
+                }
+            }
+            if (fresh.isEmpty()) {
+                logProgress();
+                return;
+            }
+
+            // 2. Băm mật khẩu song song trên pool riêng
+            List<PendingRow> hashed = hashingPool.submit(() -> fresh.parallelStream()
+                    .map(row -> new PendingRow(row.number(), row.request(),
+                            passwordEncoder.encode(row.request().getPassword())))
+                    .toList()).join();
+
+            // 3. Thêm cả batch bằng một câu SQL; nếu lỗi thì thử từng dòng để xác định dòng hỏng
+            List<InsertedMember> inserted;
+            try {
+                inserted = insert(hashed, roleId);
+                record(hashed, inserted);
+            } catch (DataAccessException e) {
+                logger.warn("Batch insert failed, retrying rows one by one: {}", e.getMostSpecificCause().getMessage());
+                inserted = new ArrayList<>();
+                for (PendingRow row : hashed) {
+                    try {
+                        List<InsertedMember> single = insert(List.of(row), roleId);
+                        record(List.of(row), single);
+                        inserted.addAll(single);
+                    } catch (DataAccessException rowError) {
+                        fail(row.number(), row.request().getUsername(), rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            memberSuggestIndex.putAll(inserted);
+            logProgress();
+        }
+
+        private void record(List<PendingRow> rows, List<InsertedMember> inserted) {
+            Map<String, InsertedMember> byUsername = inserted.stream()
+                    .collect(Collectors.toMap(InsertedMember::username, Function.identity()));
+            for (PendingRow row : rows) {
+                if (byUsername.containsKey(row.request().getUsername())) {
+                    imported++;
+                    importedCounter.increment();
+                } else {
+                    // Bị một request khác thêm trước trong lúc import
+                    fail(row.number(), row.request().getUsername(), "Username hoặc email đã tồn tại");
+                }
+            }
+        }
+
+        private void fail(long number, String username, String message) {
+            failed++;
+            failedCounter.increment();
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(number, username, message));
+            }
+        }
+
+        private void logProgress() {
+            logger.info("Member import {} progress: {} rows read, {} imported, {} failed", id, total, imported, failed);
+        }
+    }
+}
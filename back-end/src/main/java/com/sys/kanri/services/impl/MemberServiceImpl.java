@@ -3,29 +3,41 @@ package com.sys.kanri.services.impl;
 import com.sys.kanri.dto.request.ChangePasswordReqDto;
 import com.sys.kanri.dto.request.MemberSearchReqDto;
 import com.sys.kanri.dto.request.RegisterReqDto;
+import com.sys.kanri.dto.response.CursorPaginationResDto;
 import com.sys.kanri.dto.response.MemberResDto;
+import com.sys.kanri.dto.response.MemberSuggestionResDto;
 import com.sys.kanri.dto.response.PaginationResDto;
 import com.sys.kanri.entities.Member;
-import com.sys.kanri.entities.Role;
 import com.sys.kanri.enums.RoleType;
 import com.sys.kanri.exceptions.ApiException;
 import com.sys.kanri.mapper.MemberMapper;
 import com.sys.kanri.repositories.MemberRepository;
-import com.sys.kanri.repositories.RoleRepository;
+import com.sys.kanri.repositories.projections.MemberView;
+import com.sys.kanri.security.JwtPrincipal;
+import com.sys.kanri.security.PasswordHashingService;
+import com.sys.kanri.security.PrincipalCache;
+import com.sys.kanri.security.RefreshTokenService;
 import com.sys.kanri.services.MemberService;
+import com.sys.kanri.utils.AfterCommit;
+import com.sys.kanri.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.sys.kanri.enums.ErrorCode.*;
@@ -36,8 +48,13 @@ public class MemberServiceImpl implements MemberService {
 
     private final MemberRepository memberRepository;
     private final PasswordEncoder passwordEncoder;
-    private final RoleRepository roleRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final RoleRegistry roleRegistry;
     private final MemberMapper memberMapper;
+    private final PrincipalCache principalCache;
+    private final RefreshTokenService refreshTokenService;
+    private final MemberCountCache memberCountCache;
+    private final MemberSuggestIndex memberSuggestIndex;
 
     /**
      * Finds a member by their username.
@@ -50,6 +67,20 @@ public class MemberServiceImpl implements MemberService {
         return memberRepository.findByUsername(username);
     }
 
+    /**
+     * Loads the slim principal cached by {@link PrincipalCache}: id, username and role only.
+     *
+     * @param username the username taken from the token subject
+     * @return the principal of the member
+     * @throws UsernameNotFoundException if no member has the username
+     */
+    @Override
+    public JwtPrincipal loadPrincipal(String username) {
+        return memberRepository.findByUsername(username)
+                .map(JwtPrincipal::of)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+    }
+
     /**
      * Retrieves a member by their unique identifier.
      *
@@ -59,25 +90,54 @@ public class MemberServiceImpl implements MemberService {
      */
     @Override
     public MemberResDto getMemberById(Long id) {
-        Member member = memberRepository.findById(id)
+        MemberView member = memberRepository.findViewById(id)
                 .orElseThrow(() -> new ApiException(
-                        USERNAME_EXISTS.message,
-                        USERNAME_EXISTS.code,
-                        USERNAME_EXISTS.status
+                        MEMBER_NOT_FOUND.message,
+                        MEMBER_NOT_FOUND.code,
+                        MEMBER_NOT_FOUND.status
                 ));
         return memberMapper.toDto(member);
     }
 
+    /**
+     * Returns the last update time of a member, used as its ETag version.
+     * Reads a single column so a conditional GET can answer 304 without loading the member.
+     *
+     * @param id the unique identifier of the member
+     * @return the last update time, or the creation time if the member was never updated
+     * @throws ApiException if the member with the specified id is not found
+     */
+    @Override
+    public LocalDateTime getMemberVersion(Long id) {
+        return memberRepository.findUpdatedAtById(id)
+                .orElseThrow(() -> new ApiException(
+                        MEMBER_NOT_FOUND.message,
+                        MEMBER_NOT_FOUND.code,
+                        MEMBER_NOT_FOUND.status
+                ));
+    }
+
     /**
      * Deletes a member entity identified by the given ID.
      * This method removes the entity with the specified ID from the repository.
      * If no entity with the given ID exists, the method will not throw an exception.
+     * The cached principal of the deleted member is evicted once the deletion has committed.
      *
      * @param id the unique identifier of the entity to be deleted
      */
     @Override
+    @Transactional
     public void deleteById(Long id) {
-        memberRepository.deleteById(id);
+        memberRepository.findById(id).ifPresent(member -> {
+            // Thu hồi trước khi xóa: refresh_tokens bị xóa theo ON DELETE CASCADE
+            refreshTokenService.revokeAll(member.getId());
+            memberRepository.delete(member);
+            // Instance khác đọc nhật ký này để bỏ member khỏi index gợi ý của mình
+            memberRepository.logDeletion(member.getId(), LocalDateTime.now());
+            AfterCommit.run(() -> principalCache.evict(member.getUsername()));
+            AfterCommit.run(memberCountCache::invalidateAll);
+            AfterCommit.run(() -> memberSuggestIndex.remove(member.getId()));
+        });
     }
 
     /**
@@ -110,7 +170,7 @@ public class MemberServiceImpl implements MemberService {
         // 2. Tạo member mới
         Member newMember = Member.builder()
                 .username(request.getUsername())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .fullName(request.getFullName())
                 .email(request.getEmail())
                 .phone(request.getPhone())
@@ -121,12 +181,13 @@ public class MemberServiceImpl implements MemberService {
 
         // 3. Gán role nếu có mode
         RoleType type = RoleType.SUPPORT.name().equalsIgnoreCase(mode) ? RoleType.SUPPORT : RoleType.CUSTOMER;
-        Role role = roleRepository.findByName(type)
-                .orElseThrow(() -> new ApiException(ROLE_NOT_FOUND.message, ROLE_NOT_FOUND.code, ROLE_NOT_FOUND.status));
-
-        newMember.setRole(role);
+        newMember.setRole(roleRegistry.reference(type));
         // 4. Save
         memberRepository.save(newMember);
+        AfterCommit.run(memberCountCache::invalidateAll);
+        // Chỉ gợi ý sau khi commit: nếu commit lỗi (vi phạm unique) thì member không tồn tại
+        AfterCommit.run(() -> memberSuggestIndex.put(
+                newMember.getId(), newMember.getUsername(), newMember.getEmail(), newMember.getFullName()));
     }
 
     /**
@@ -147,18 +208,24 @@ public class MemberServiceImpl implements MemberService {
                 throw new ApiException(USERNAME_EXISTS.message, USERNAME_EXISTS.code, USERNAME_EXISTS.status);
             }
 
-            if (!passwordEncoder.matches(request.getOldPassword(), member.get().getPassword())) {
-                throw new ApiException(OLD_PASSWORD_MISMATCH.message, OLD_PASSWORD_MISMATCH.code, OLD_PASSWORD_MISMATCH.status);
-            }
-
-            if (passwordEncoder.matches(request.getNewPassword(), member.get().getPassword())) {
-                throw new ApiException(NEW_PASSWORD_SAME_AS_OLD.message, NEW_PASSWORD_SAME_AS_OLD.code, NEW_PASSWORD_SAME_AS_OLD.status);
-            }
-            // Mã hóa mật khẩu mới và cập nhật
-            String newHashedPassword = passwordEncoder.encode(request.getNewPassword());
+            // Hai lần so khớp và lần mã hóa mật khẩu mới chạy chung một tác vụ trên pool băm mật khẩu
+            String currentHashedPassword = member.get().getPassword();
+            String newHashedPassword = passwordHashingService.execute(() -> {
+                if (!passwordEncoder.matches(request.getOldPassword(), currentHashedPassword)) {
+                    throw new ApiException(OLD_PASSWORD_MISMATCH.message, OLD_PASSWORD_MISMATCH.code, OLD_PASSWORD_MISMATCH.status);
+                }
+                if (passwordEncoder.matches(request.getNewPassword(), currentHashedPassword)) {
+                    throw new ApiException(NEW_PASSWORD_SAME_AS_OLD.message, NEW_PASSWORD_SAME_AS_OLD.code, NEW_PASSWORD_SAME_AS_OLD.status);
+                }
+                // Mã hóa mật khẩu mới
+                return passwordEncoder.encode(request.getNewPassword());
+            });
             member.get().setPassword(newHashedPassword);
             // Lưu thay đổi vào database
             memberRepository.save(member.get());
+            // Thu hồi mọi refresh token và access token còn hiệu lực, buộc đăng nhập lại với mật khẩu mới
+            refreshTokenService.revokeAll(member.get().getId());
+            AfterCommit.run(() -> principalCache.evict(username));
         } catch (IllegalArgumentException e) {
             throw new ApiException(PASSWORD_CHANGE_FAILED.message, PASSWORD_CHANGE_FAILED.code, PASSWORD_CHANGE_FAILED.status);
         }
@@ -166,47 +233,150 @@ public class MemberServiceImpl implements MemberService {
 
     /**
      * Retrieves a paginated list of members based on the given search criteria.
+     * The page itself never triggers a count query; when {@code withTotal} is requested the total
+     * comes from {@link MemberCountCache}, otherwise only {@code hasNext} is reported.
      *
      * @param request the object containing search criteria such as page number, page size,
-     *                and optional keyword for filtering members.
+     *                optional keyword for filtering members and whether totals are needed.
      * @return a {@code PaginationResDto<MemberResDto>} containing the current page's data,
      *         pagination details (like total elements, total pages, etc.), and flags
      *         indicating the position within the pagination (e.g., if this is the first
-     *         or last page).
+     *         or last page). Totals are {@code null} when {@code withTotal} is false.
      */
     @Override
     public PaginationResDto<MemberResDto> getAllMember(MemberSearchReqDto request) {
         // Tạo đối tượng Pageable từ PaginationRequest
         Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
-        Page<Member> memberPage;
+        String keyword = MemberCountCache.normalize(request.getKeyword());
         // Kiểm tra xem có từ khóa tìm kiếm không
-        if (request.getKeyword() != null && !request.getKeyword().isEmpty()) {
-            String keyword = request.getKeyword().trim();
-            memberPage = memberRepository.searchByKeyword(keyword, keyword, pageable);
-        } else {
-            // Nếu không có từ khóa, trả về tất cả
-            memberPage = memberRepository.findAll(pageable);
-        }
+        String pattern = likePattern(keyword);
+        Slice<MemberView> memberSlice = keyword.isEmpty()
+                ? memberRepository.findViewSliceBy(pageable)
+                : memberRepository.searchByKeyword(keyword, pattern, pageable);
+
+        return toPagination(memberSlice, pageable, request.isWithTotal(), keyword, () -> keyword.isEmpty()
+                ? memberRepository.count()
+                : memberRepository.countByKeyword(pattern));
+    }
 
-        // Chuyển đổi danh sách đối tượng Member (Entity) sang danh sách MemberResDto (DTO).
-        List<MemberResDto> memberResDtoList = memberPage.getContent().stream()
+    /**
+     * Retrieves a page of the members having the given role, ordered by id.
+     * Like {@link #getAllMember}, the page itself never runs a count query; the total is cached.
+     *
+     * @param role    the role whose members are listed
+     * @param request the page number, page size and whether totals are needed
+     * @return the members of the page with pagination details
+     */
+    @Override
+    public PaginationResDto<MemberResDto> getMembersByRole(RoleType role, MemberSearchReqDto request) {
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
+        Slice<MemberView> memberSlice = memberRepository.findViewSliceByRole(role, pageable);
+        // Khóa viết hoa nên không trùng với từ khóa tìm kiếm (luôn được chuẩn hóa thành chữ thường)
+        return toPagination(memberSlice, pageable, request.isWithTotal(), "ROLE:" + role.name(),
+                () -> memberRepository.countByRoleName(role));
+    }
+
+    private PaginationResDto<MemberResDto> toPagination(Slice<MemberView> memberSlice, Pageable pageable,
+                                                        boolean withTotal, String countKey, Supplier<Long> counter) {
+        // Chuyển đổi danh sách projection MemberView sang danh sách MemberResDto (DTO).
+        List<MemberResDto> memberResDtoList = memberSlice.getContent().stream()
                 .map(memberMapper::toDto) // Sử dụng stream để ánh xạ từng đối tượng.
                 .collect(Collectors.toList());
 
-        // Chuyển đổi Page thành PaginationResponse
+        Long totalElements = null;
+        Integer totalPages = null;
+        if (withTotal) {
+            long total = memberCountCache.get(countKey, counter);
+            Page<MemberView> memberPage = new PageImpl<>(memberSlice.getContent(), pageable, total);
+            totalElements = memberPage.getTotalElements();
+            totalPages = memberPage.getTotalPages();
+        }
+
+        // Chuyển đổi Slice thành PaginationResponse
         return new PaginationResDto<MemberResDto>(
                 memberResDtoList, // Dữ liệu của trang hiện tại
-                memberPage.getNumber(),// Số trang hiện tại (bắt đầu từ 0)
-                memberPage.getSize(),// Kích thước trang
-                memberPage.getTotalElements(),// Tổng số phần tử
-                memberPage.getTotalPages(),// Tổng số trang
-                memberPage.isLast(),// Có phải trang cuối không?
-                memberPage.isFirst(),// Có phải trang đầu không?
-                memberPage.hasNext(),// Có trang tiếp theo không?
-                memberPage.hasPrevious() // Có trang trước không?
+                memberSlice.getNumber(),// Số trang hiện tại (bắt đầu từ 0)
+                memberSlice.getSize(),// Kích thước trang
+                totalElements,// Tổng số phần tử (null nếu không đếm)
+                totalPages,// Tổng số trang (null nếu không đếm)
+                memberSlice.isLast(),// Có phải trang cuối không?
+                memberSlice.isFirst(),// Có phải trang đầu không?
+                memberSlice.hasNext(),// Có trang tiếp theo không?
+                memberSlice.hasPrevious() // Có trang trước không?
+        );
+    }
+
+    /**
+     * Retrieves a page of members using keyset (seek) pagination ordered by {@code (createdAt DESC, id DESC)}.
+     * Unlike {@link #getAllMember}, no count query is issued and the cost does not grow with the page depth.
+     *
+     * @param request the search criteria; {@code cursor} is the {@code nextCursor} of the previous page,
+     *                or blank for the first page
+     * @return the members of the page and the cursor of the next page, if any
+     * @throws ApiException if the cursor is malformed
+     */
+    @Override
+    public CursorPaginationResDto<MemberResDto> getMembersByCursor(MemberSearchReqDto request) {
+        KeysetCursor cursor = KeysetCursor.decode(request.getCursor());
+        // Lấy thêm 1 bản ghi để biết còn trang tiếp theo hay không
+        Limit limit = Limit.of(request.getSize() + 1);
+        String keyword = MemberCountCache.normalize(request.getKeyword());
+        List<MemberView> members;
+        if (!keyword.isEmpty()) {
+            members = memberRepository.searchPageAfter(likePattern(keyword), cursor.createdAt(), cursor.id(), limit);
+        } else {
+            members = memberRepository.findPageAfter(cursor.createdAt(), cursor.id(), limit);
+        }
+
+        boolean hasNext = members.size() > request.getSize();
+        List<MemberView> page = hasNext ? members.subList(0, request.getSize()) : members;
+        String nextCursor = null;
+        if (hasNext) {
+            MemberView last = page.getLast();
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new CursorPaginationResDto<>(
+                page.stream().map(memberMapper::toDto).toList(),
+                request.getSize(),
+                nextCursor,
+                hasNext
         );
     }
 
+    /**
+     * Suggests members whose username, email or name starts with the given prefix.
+     * Served from {@link MemberSuggestIndex} without touching the database; while the index is
+     * still warming up, falls back to a bounded database search.
+     *
+     * @param prefix the prefix typed by the user
+     * @param limit  the maximum number of suggestions
+     * @return the matching members
+     */
+    @Override
+    public List<MemberSuggestionResDto> suggestMembers(String prefix, int limit) {
+        if (memberSuggestIndex.isReady()) {
+            return memberSuggestIndex.suggest(prefix, limit);
+        }
+
+        String keyword = MemberCountCache.normalize(prefix);
+        String pattern = likePattern(keyword);
+        // Bỏ ký tự '%' ở đầu để tìm theo tiền tố
+        return memberRepository.searchPageAfter(pattern.substring(1), KeysetCursor.FIRST.createdAt(),
+                        KeysetCursor.FIRST.id(), Limit.of(limit)).stream()
+                .map(member -> new MemberSuggestionResDto(member.getId(), member.getUsername(), member.getFullName()))
+                .toList();
+    }
+
+    /**
+     * Builds a {@code %keyword%} pattern for a substring search, escaping the LIKE wildcards
+     * contained in the keyword itself.
+     */
+    private static String likePattern(String keyword) {
+        String escaped = keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
     /**
      * Loads the user details associated with the provided username.
      *
@@ -219,4 +389,24 @@ public class MemberServiceImpl implements MemberService {
     public UserDetails loadUserByUsername(@NonNull String username) throws UsernameNotFoundException {
         return memberRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
+
+    /**
+     * Stores a re-encoded password after a successful login.
+     * Called by Spring's {@code DaoAuthenticationProvider} when {@code PasswordEncoder.upgradeEncoding}
+     * reports that the stored hash uses an outdated format or a lower BCrypt strength.
+     *
+     * @param user        the authenticated user
+     * @param newPassword the password already encoded with the current encoder
+     * @return the updated user details
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Member member = memberRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + user.getUsername()));
+        member.setPassword(newPassword);
+        memberRepository.save(member);
+        AfterCommit.run(() -> principalCache.evict(member.getUsername()));
+        return member;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,663 @@
+package com.sys.kanri.services.impl;
+
+import com.sys.kanri.dto.response.MemberSuggestionResDto;
+import com.sys.kanri.repositories.MemberRepository;
+import com.sys.kanri.repositories.projections.MemberSuggestView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over member username, email and full name, used for type-ahead suggestions.
+ *
+ * <p>The bulk of the index is an immutable base snapshot of parallel primitive arrays: members
+ * sorted by id, and lower-cased terms sorted lexicographically with the owning member id. Writes
+ * never copy it; they go to a small delta (a concurrent map of members and a skip list of terms)
+ * in {@code O(log n)}. Lookups binary-search the base, seek the delta and merge both in term order,
+ * a member in the delta shadowing its base entry. A scheduled compaction folds the delta into a new
+ * base off the request path, while new writes go to a fresh delta.
+ *
+ * <p>Each instance keeps its own index and only sees its own writes immediately. Changes made through
+ * another instance are pulled every {@code member.suggest.sync-interval}: members whose {@code updated_at}
+ * moved since the last sync, and ids logged in {@code member_deletions}, both read through an index and
+ * applied to the delta like local writes. Until then suggestions may be stale. Suggestions are a
+ * convenience, so callers must not rely on them for authorization or existence.
+ *
+ * <p>The whole table is read only at startup, when a sync has not succeeded within
+ * {@code member.suggest.deletion-retention} (older deletions may already be purged), or on the opt-in
+ * {@code member.suggest.full-reload-cron}. A full load holds every row of the table while the new base is
+ * built next to the current one, so it needs roughly the rows read (a few hundred bytes each) plus twice
+ * the {@code member.suggest.index.bytes} gauge of heap for its duration.
+ */
+@Component
+public class MemberSuggestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemberSuggestIndex.class);
+
+    // Thay đổi commit muộn hơn thời điểm ghi updated_at/deleted_at (hoặc lệch đồng hồ giữa các instance)
+    // vẫn được đọc ở lần đồng bộ sau; áp dụng lại một thay đổi không làm sai index
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private static final Comparator<Term> TERM_ORDER =
+            Comparator.comparing(Term::value).thenComparingLong(Term::memberId);
+
+    private record Term(String value, long memberId) {
+    }
+
+    /**
+     * Latest state of a member in a delta; {@code removed} entries shadow the member in lower layers.
+     */
+    private record Entry(long id, String username, String fullName, List<String> terms, boolean removed) {
+
+        static Entry removed(long id) {
+            return new Entry(id, null, null, List.of(), true);
+        }
+    }
+
+    private record Snapshot(long[] memberIds, String[] usernames, String[] fullNames,
+                            String[] terms, long[] termMemberIds, long estimatedBytes) {
+    }
+
+    /**
+     * Changes made since the base was built. Mutated only under the write lock, read without locks.
+     */
+    private static final class Delta {
+        private final Map<Long, Entry> members = new ConcurrentHashMap<>();
+        private final NavigableSet<Term> terms = new ConcurrentSkipListSet<>(TERM_ORDER);
+
+        void apply(Entry entry) {
+            Entry previous = members.put(entry.id(), entry);
+            if (previous != null) {
+                for (String value : previous.terms()) {
+                    terms.remove(new Term(value, previous.id()));
+                }
+            }
+            for (String value : entry.terms()) {
+                terms.add(new Term(value, entry.id()));
+            }
+        }
+
+        boolean isEmpty() {
+            return members.isEmpty();
+        }
+    }
+
+    /**
+     * Layers of the index, newest first: {@code active} receives writes, {@code frozen} is the delta
+     * being folded into a new base by a rebuild in progress ({@code null} otherwise).
+     */
+    private record State(Snapshot base, Delta frozen, Delta active) {
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(new long[0], new String[0], new String[0],
+            new String[0], new long[0], 0);
+
+    private final MemberRepository memberRepository;
+    private final int maxMembers;
+    private final Duration deletionRetention;
+    private final Object writeLock = new Object();
+    // Chỉ một lần compact hoặc nạp lại chạy tại một thời điểm
+    private final Object rebuildLock = new Object();
+    // Trước khi warm-up xong, thay đổi vẫn được ghi vào delta và giữ lại sau khi dựng base
+    private volatile State state = new State(EMPTY, null, new Delta());
+    private volatile boolean ready;
+    private volatile boolean disabled;
+    // Thời điểm (trước khi đọc DB) của lần nạp hoặc đồng bộ thành công gần nhất
+    private LocalDateTime syncedAt;
+
+    public MemberSuggestIndex(
+            MemberRepository memberRepository,
+            MeterRegistry meterRegistry,
+            @Value("${member.suggest.max-members:2000000}") int maxMembers,
+            @Value("${member.suggest.deletion-retention:1d}") Duration deletionRetention) {
+        this.memberRepository = memberRepository;
+        this.maxMembers = maxMembers;
+        this.deletionRetention = deletionRetention;
+        Gauge.builder("member.suggest.index.members", this, index -> index.state.base().memberIds().length)
+                .register(meterRegistry);
+        Gauge.builder("member.suggest.index.terms", this, index -> index.state.base().terms().length)
+                .register(meterRegistry);
+        Gauge.builder("member.suggest.index.delta", this, index -> index.deltaSize(index.state))
+                .description("Members changed since the base snapshot was built")
+                .register(meterRegistry);
+        Gauge.builder("member.suggest.index.bytes", this, index -> index.state.base().estimatedBytes())
+                .description("Estimated heap used by the base snapshot of the suggestion index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every member into the index once the application has started.
+     * Until it completes, {@link #isReady()} is false and callers should fall back to the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        load();
+    }
+
+    /**
+     * Rebuilds the whole index from the database. Disabled unless {@code member.suggest.full-reload-cron}
+     * is set; {@link #sync()} already picks up changes made on other instances.
+     */
+    @Scheduled(cron = "${member.suggest.full-reload-cron:-}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        load();
+    }
+
+    /**
+     * Applies members created, updated or deleted since the last sync, including on other instances.
+     * Falls back to a full load when the last successful sync is older than the deletion log retention.
+     */
+    @Scheduled(fixedDelayString = "${member.suggest.sync-interval:30s}",
+            initialDelayString = "${member.suggest.sync-interval:30s}")
+    @Transactional(readOnly = true)
+    public void sync() {
+        synchronized (rebuildLock) {
+            if (disabled) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (!ready || syncedAt.isBefore(now.minus(deletionRetention))) {
+                // Chưa nạp được lần nào, hoặc nhật ký xóa từ lần đồng bộ trước có thể đã bị dọn
+                load();
+                return;
+            }
+
+            LocalDateTime since = syncedAt.minus(SYNC_OVERLAP);
+            List<Entry> entries = new ArrayList<>();
+            for (MemberSuggestView member : memberRepository.findSuggestViewsUpdatedAfter(since)) {
+                entries.add(new Entry(member.getId(), member.getUsername(), member.getFullName(),
+                        terms(member.getUsername(), member.getEmail(), member.getFullName()), false));
+            }
+            // Áp dụng xóa sau cùng: member bị xóa trong lúc đọc không quay lại index
+            for (Long id : memberRepository.findIdsDeletedAfter(since)) {
+                entries.add(Entry.removed(id));
+            }
+            boolean full;
+            synchronized (writeLock) {
+                entries.forEach(state.active()::apply);
+                full = size() > maxMembers;
+            }
+            syncedAt = now;
+            if (full) {
+                // Đếm theo delta có thể tính trùng: nạp lại để biết chính xác, vượt giới hạn thì tắt index
+                load();
+            } else if (!entries.isEmpty()) {
+                logger.debug("Member suggestion index synced {} changes", entries.size());
+            }
+        }
+    }
+
+    /**
+     * Deletes entries of the deletion log that every instance has had time to apply.
+     */
+    @Scheduled(fixedDelayString = "${member.suggest.deletion-retention:1d}",
+            initialDelayString = "${member.suggest.deletion-retention:1d}")
+    public void purgeDeletions() {
+        int deleted = memberRepository.deleteDeletionsBefore(LocalDateTime.now().minus(deletionRetention));
+        if (deleted > 0) {
+            logger.info("Purged {} entries of the member deletion log", deleted);
+        }
+    }
+
+    /**
+     * Folds the changes made since the last rebuild into a new base snapshot, keeping the delta small.
+     */
+    @Scheduled(fixedDelayString = "${member.suggest.compact-interval:1m}")
+    public void compact() {
+        synchronized (rebuildLock) {
+            State frozen;
+            synchronized (writeLock) {
+                if (disabled || !ready || state.active().isEmpty()) {
+                    return;
+                }
+                frozen = freeze();
+            }
+            try {
+                install(fold(frozen.base(), frozen.frozen()));
+            } catch (RuntimeException e) {
+                restore();
+                throw e;
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns members having a username, email, full name or name word starting with the prefix.
+     *
+     * @param prefix the prefix typed by the user
+     * @param limit  the maximum number of members to return
+     * @return the matching members in term order, without duplicates
+     */
+    public List<MemberSuggestionResDto> suggest(String prefix, int limit) {
+        State current = state;
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        // Trộn các nguồn đã sắp xếp theo term; mỗi term chỉ hợp lệ nếu lớp của nó là lớp mới nhất chứa member
+        List<PeekingTerms> sources = new ArrayList<>(3);
+        sources.add(new PeekingTerms(deltaTerms(current.active(), normalized), current.active()));
+        if (current.frozen() != null) {
+            sources.add(new PeekingTerms(deltaTerms(current.frozen(), normalized), current.frozen()));
+        }
+        sources.add(new PeekingTerms(baseTerms(current.base(), normalized), null));
+
+        Set<Long> matchedIds = new LinkedHashSet<>();
+        while (matchedIds.size() < limit) {
+            PeekingTerms next = null;
+            for (PeekingTerms source : sources) {
+                if (source.peek() != null && (next == null || TERM_ORDER.compare(source.peek(), next.peek()) < 0)) {
+                    next = source;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            Term term = next.next();
+            if (owner(current, term.memberId()) == next.layer()) {
+                matchedIds.add(term.memberId());
+            }
+        }
+
+        List<MemberSuggestionResDto> result = new ArrayList<>(matchedIds.size());
+        for (Long id : matchedIds) {
+            Delta layer = owner(current, id);
+            if (layer != null) {
+                Entry entry = layer.members.get(id);
+                if (entry != null && !entry.removed()) {
+                    result.add(new MemberSuggestionResDto(id, entry.username(), entry.fullName()));
+                }
+                continue;
+            }
+            Snapshot base = current.base();
+            int slot = Arrays.binarySearch(base.memberIds(), id);
+            if (slot >= 0) {
+                result.add(new MemberSuggestionResDto(id, base.usernames()[slot], base.fullNames()[slot]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds a member to the index, replacing any previous entry with the same id.
+     * Call it once the member has been committed.
+     */
+    public void put(Long id, String username, String email, String fullName) {
+        if (id == null) {
+            return;
+        }
+        Entry entry = new Entry(id, username, fullName, terms(username, email, fullName), false);
+        synchronized (writeLock) {
+            if (!disabled && size() < maxMembers) {
+                state.active().apply(entry);
+            }
+        }
+    }
+
+    /**
+     * Adds newly created members, e.g. after a bulk import batch, taking the write lock once.
+     */
+    public void putAll(Collection<? extends MemberSuggestView> members) {
+        List<Entry> entries = new ArrayList<>(members.size());
+        for (MemberSuggestView member : members) {
+            if (member.getId() != null) {
+                entries.add(new Entry(member.getId(), member.getUsername(), member.getFullName(),
+                        terms(member.getUsername(), member.getEmail(), member.getFullName()), false));
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (!disabled && size() + entries.size() <= maxMembers) {
+                entries.forEach(state.active()::apply);
+            }
+        }
+    }
+
+    /**
+     * Removes a member from the index. Call it once the deletion has been committed.
+     */
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (!disabled) {
+                state.active().apply(Entry.removed(id));
+            }
+        }
+    }
+
+    private void load() {
+        synchronized (rebuildLock) {
+            if (disabled) {
+                return;
+            }
+            long start = System.nanoTime();
+            LocalDateTime loadedAt = LocalDateTime.now();
+            // Đóng băng delta trước khi đọc DB: mọi thay đổi trong đó đã commit nên bản đọc sau sẽ chứa chúng
+            synchronized (writeLock) {
+                freeze();
+            }
+            try {
+                List<MemberSuggestView> rows = new ArrayList<>();
+                try (Stream<MemberSuggestView> stream = memberRepository.streamSuggestViews()) {
+                    stream.limit(maxMembers + 1L).forEach(rows::add);
+                }
+                if (rows.size() > maxMembers) {
+                    logger.warn("Member suggestion index disabled: more than {} members", maxMembers);
+                    synchronized (writeLock) {
+                        disabled = true;
+                        ready = false;
+                        state = new State(EMPTY, null, new Delta());
+                    }
+                    return;
+                }
+                install(build(rows));
+                syncedAt = loadedAt;
+                ready = true;
+                logger.info("Member suggestion index loaded with {} members in {} ms",
+                        rows.size(), (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                restore();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Moves the active delta aside for a rebuild; writes made meanwhile go to a fresh delta.
+     * Must be called holding both locks.
+     */
+    private State freeze() {
+        State current = state;
+        state = new State(current.base(), current.active(), new Delta());
+        return state;
+    }
+
+    private void install(Snapshot base) {
+        synchronized (writeLock) {
+            state = new State(base, null, state.active());
+        }
+    }
+
+    /**
+     * Puts the frozen delta back under the active one after a failed rebuild.
+     */
+    private void restore() {
+        synchronized (writeLock) {
+            State current = state;
+            if (current.frozen() == null) {
+                return;
+            }
+            Delta merged = new Delta();
+            current.frozen().members.values().forEach(merged::apply);
+            current.active().members.values().forEach(merged::apply);
+            state = new State(current.base(), null, merged);
+        }
+    }
+
+    private int size() {
+        return state.base().memberIds().length + deltaSize(state);
+    }
+
+    private int deltaSize(State current) {
+        return current.active().members.size() + (current.frozen() != null ? current.frozen().members.size() : 0);
+    }
+
+    /**
+     * Returns the newest delta that contains the member, or {@code null} if only the base may.
+     */
+    private static Delta owner(State current, long id) {
+        if (current.active().members.containsKey(id)) {
+            return current.active();
+        }
+        if (current.frozen() != null && current.frozen().members.containsKey(id)) {
+            return current.frozen();
+        }
+        return null;
+    }
+
+    private static Snapshot build(List<MemberSuggestView> rows) {
+        rows.sort(Comparator.comparing(MemberSuggestView::getId));
+        long[] memberIds = new long[rows.size()];
+        String[] usernames = new String[rows.size()];
+        String[] fullNames = new String[rows.size()];
+        List<Term> terms = new ArrayList<>(rows.size() * 4);
+        for (int i = 0; i < rows.size(); i++) {
+            MemberSuggestView row = rows.get(i);
+            memberIds[i] = row.getId();
+            usernames[i] = row.getUsername();
+            fullNames[i] = row.getFullName();
+            for (String value : terms(row.getUsername(), row.getEmail(), row.getFullName())) {
+                terms.add(new Term(value, row.getId()));
+            }
+        }
+        terms.sort(TERM_ORDER);
+
+        String[] termValues = new String[terms.size()];
+        long[] termMemberIds = new long[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            termValues[i] = terms.get(i).value();
+            termMemberIds[i] = terms.get(i).memberId();
+        }
+        return snapshot(memberIds, usernames, fullNames, termValues, termMemberIds);
+    }
+
+    /**
+     * Builds a new base from the current one and a delta: members of the delta replace or remove
+     * their base entries. Both inputs are sorted, so this is a single linear merge.
+     */
+    private static Snapshot fold(Snapshot base, Delta delta) {
+        List<Entry> entries = delta.members.values().stream()
+                .sorted(Comparator.comparingLong(Entry::id))
+                .toList();
+
+        long[] oldIds = base.memberIds();
+        int capacity = oldIds.length + entries.size();
+        long[] memberIds = new long[capacity];
+        String[] usernames = new String[capacity];
+        String[] fullNames = new String[capacity];
+        int members = 0;
+        int a = 0;
+        int b = 0;
+        while (a < oldIds.length || b < entries.size()) {
+            if (b >= entries.size() || (a < oldIds.length && oldIds[a] < entries.get(b).id())) {
+                memberIds[members] = oldIds[a];
+                usernames[members] = base.usernames()[a];
+                fullNames[members++] = base.fullNames()[a++];
+                continue;
+            }
+            Entry entry = entries.get(b++);
+            if (a < oldIds.length && oldIds[a] == entry.id()) {
+                a++;
+            }
+            if (!entry.removed()) {
+                memberIds[members] = entry.id();
+                usernames[members] = entry.username();
+                fullNames[members++] = entry.fullName();
+            }
+        }
+
+        String[] oldTerms = base.terms();
+        long[] oldTermIds = base.termMemberIds();
+        List<Term> added = new ArrayList<>(delta.terms);
+        String[] terms = new String[oldTerms.length + added.size()];
+        long[] termMemberIds = new long[terms.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < oldTerms.length || j < added.size()) {
+            if (j >= added.size() || (i < oldTerms.length && oldTerms[i].compareTo(added.get(j).value()) <= 0)) {
+                // Term của member có trong delta đã được thay bằng term mới (hoặc bị xóa)
+                if (!delta.members.containsKey(oldTermIds[i])) {
+                    terms[count] = oldTerms[i];
+                    termMemberIds[count++] = oldTermIds[i];
+                }
+                i++;
+            } else {
+                terms[count] = added.get(j).value();
+                termMemberIds[count++] = added.get(j++).memberId();
+            }
+        }
+        return snapshot(Arrays.copyOf(memberIds, members), Arrays.copyOf(usernames, members),
+                Arrays.copyOf(fullNames, members), Arrays.copyOf(terms, count), Arrays.copyOf(termMemberIds, count));
+    }
+
+    private static Snapshot snapshot(long[] memberIds, String[] usernames, String[] fullNames,
+                                     String[] terms, long[] termMemberIds) {
+        // Ước lượng: mỗi String ~40 byte overhead + 1 byte/ký tự (compact strings), mỗi tham chiếu 4 byte
+        long bytes = memberIds.length * 8L + termMemberIds.length * 8L
+                + (usernames.length + fullNames.length + terms.length) * 4L;
+        for (int i = 0; i < usernames.length; i++) {
+            bytes += stringBytes(usernames[i]) + stringBytes(fullNames[i]);
+        }
+        for (String term : terms) {
+            bytes += stringBytes(term);
+        }
+        return new Snapshot(memberIds, usernames, fullNames, terms, termMemberIds, bytes);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40L + value.length();
+    }
+
+    private static List<String> terms(String username, String email, String fullName) {
+        Set<String> values = new LinkedHashSet<>();
+        values.add(normalize(username));
+        values.add(normalize(email));
+        String name = normalize(fullName);
+        values.add(name);
+        // Cho phép gợi ý theo từng từ trong họ tên (ví dụ "van" khớp "Nguyen Van A")
+        values.addAll(Arrays.asList(name.split("\\s+")));
+        values.remove("");
+        return List.copyOf(values);
+    }
+
+    private static Iterator<Term> deltaTerms(Delta delta, String prefix) {
+        Iterator<Term> tail = delta.terms.tailSet(new Term(prefix, Long.MIN_VALUE)).iterator();
+        return new Iterator<>() {
+            private Term next = advance();
+
+            private Term advance() {
+                if (tail.hasNext()) {
+                    Term term = tail.next();
+                    if (term.value().startsWith(prefix)) {
+                        return term;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Term next() {
+                Term term = next;
+                next = advance();
+                return term;
+            }
+        };
+    }
+
+    private static Iterator<Term> baseTerms(Snapshot base, String prefix) {
+        return new Iterator<>() {
+            private int i = lowerBound(base.terms(), prefix);
+
+            @Override
+            public boolean hasNext() {
+                return i < base.terms().length && base.terms()[i].startsWith(prefix);
+            }
+
+            @Override
+            public Term next() {
+                Term term = new Term(base.terms()[i], base.termMemberIds()[i]);
+                i++;
+                return term;
+            }
+        };
+    }
+
+    /**
+     * A sorted source of terms with one term of look-ahead; {@code layer} is {@code null} for the base.
+     */
+    private static final class PeekingTerms {
+        private final Iterator<Term> terms;
+        private final Delta layer;
+        private Term head;
+
+        PeekingTerms(Iterator<Term> terms, Delta layer) {
+            this.terms = terms;
+            this.layer = layer;
+            this.head = terms.hasNext() ? terms.next() : null;
+        }
+
+        Term peek() {
+            return head;
+        }
+
+        Term next() {
+            Term term = head;
+            head = terms.hasNext() ? terms.next() : null;
+            return term;
+        }
+
+        Delta layer() {
+            return layer;
+        }
+    }
+
+    private static int lowerBound(String[] terms, String key) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,78 @@
+package com.sys.kanri.services.impl;
+
+import com.sys.kanri.entities.Role;
+import com.sys.kanri.enums.RoleType;
+import com.sys.kanri.exceptions.ApiException;
+import com.sys.kanri.repositories.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.sys.kanri.enums.ErrorCode.ROLE_NOT_FOUND;
+
+/**
+ * Ids of the fixed roles, loaded once at startup so that assigning a role never queries the roles table.
+ *
+ * <p>Only ids are kept: {@link #reference(RoleType)} turns them into a reference bound to the caller's
+ * persistence context, which can be set on a {@code Member} association without loading the role and
+ * without sharing one mutable entity instance between threads. Call {@link #refresh()} after roles
+ * are changed in the database.
+ */
+@Component
+public class RoleRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private final RoleRepository roleRepository;
+    private final EntityManager entityManager;
+    private volatile Map<RoleType, Long> roleIds = Map.of();
+
+    public RoleRegistry(RoleRepository roleRepository, EntityManager entityManager) {
+        this.roleRepository = roleRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Reloads the role ids from the database and publishes them atomically.
+     */
+    @PostConstruct
+    public void refresh() {
+        Map<RoleType, Long> loaded = new EnumMap<>(RoleType.class);
+        for (Role role : roleRepository.findAll()) {
+            loaded.put(role.getName(), role.getId());
+        }
+        roleIds = Collections.unmodifiableMap(loaded);
+        logger.info("Role registry loaded: {}", loaded.keySet());
+    }
+
+    /**
+     * @param type the role type
+     * @return the id of the role
+     * @throws ApiException if the role does not exist
+     */
+    public Long id(RoleType type) {
+        Long id = roleIds.get(type);
+        if (id == null) {
+            throw new ApiException(ROLE_NOT_FOUND.message, ROLE_NOT_FOUND.code, ROLE_NOT_FOUND.status);
+        }
+        return id;
+    }
+
+    /**
+     * Returns a reference to the role for use in an association. No SQL is executed unless a
+     * property other than the id is read.
+     *
+     * @param type the role type
+     * @return a reference attached to the current persistence context
+     * @throws ApiException if the role does not exist
+     */
+    public Role reference(RoleType type) {
+        return entityManager.getReference(Role.class, id(type));
+    }
+}
@@ -0,0 +1,34 @@
+package com.sys.kanri.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects of a write (cache eviction, index updates) until its transaction
+ * has committed. Applied earlier, a concurrent reader could reload the old row and cache it again,
+ * or a rolled-back write would leave its effect behind.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs the action after the current transaction commits, or immediately when none is active.
+     * Nothing runs if the transaction rolls back.
+     *
+     * @param action the side effect to apply
+     */
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package com.sys.kanri.utils;
+
+import com.sys.kanri.dto.response.CursorPaginationResDto;
+import com.sys.kanri.dto.response.MemberResDto;
+import com.sys.kanri.dto.response.PaginationResDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Builds the ETags of member reads from {@code updatedAt}, which changes on every update of a member.
+ *
+ * <p>The tags are weak: the envelope also carries a per-response {@code timestamp} and the body may be
+ * gzip-encoded by the container, so two responses with the same tag are equivalent but not
+ * byte-identical. {@code If-None-Match} uses the weak comparison, so 304s work the same.
+ */
+public final class ETags {
+
+    // Tăng khi cấu trúc MemberResDto thay đổi để client không giữ bản cũ
+    private static final String VERSION = "1";
+
+    private ETags() {
+    }
+
+    /**
+     * Tag of a single member, computable from {@code updatedAt} alone so it can be checked before the row is loaded.
+     */
+    public static String member(Long id, LocalDateTime updatedAt) {
+        return "W/\"m" + VERSION + "-" + id + "-" + Long.toHexString(micros(updatedAt)) + "\"";
+    }
+
+    /**
+     * Version stamp of an offset page: the ids and update times of its rows plus the page metadata.
+     */
+    public static String page(PaginationResDto<MemberResDto> page) {
+        long hash = hash(page.getContent());
+        hash = mix(hash, page.getPageNumber());
+        hash = mix(hash, page.getPageSize());
+        hash = mix(hash, page.getTotalElements() != null ? page.getTotalElements() : -1);
+        hash = mix(hash, page.isHasNext() ? 1 : 0);
+        return "W/\"p" + VERSION + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Version stamp of a keyset page: the ids and update times of its rows plus the next cursor.
+     */
+    public static String page(CursorPaginationResDto<MemberResDto> page) {
+        long hash = hash(page.getContent());
+        hash = mix(hash, page.getPageSize());
+        hash = mix(hash, Objects.hashCode(page.getNextCursor()));
+        return "W/\"c" + VERSION + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    private static long hash(List<MemberResDto> members) {
+        long hash = members.size();
+        for (MemberResDto member : members) {
+            hash = mix(hash, member.getId() != null ? member.getId() : 0);
+            hash = mix(hash, micros(member.getUpdatedAt()));
+        }
+        return hash;
+    }
+
+    private static long micros(LocalDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        // Cột timestamp(6): độ chính xác micro giây là đủ và ổn định sau khi đọc lại từ DB
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    // Trộn kiểu splitmix64: rẻ, phân tán tốt; chỉ dùng để so sánh phiên bản, không dùng cho bảo mật
+    private static long mix(long hash, long value) {
+        long z = hash * 31 + value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,52 @@
+package com.sys.kanri.utils;
+
+import com.sys.kanri.exceptions.ApiException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import static com.sys.kanri.enums.ErrorCode.INVALID_CURSOR;
+
+/**
+ * Position of the last row of a keyset page, ordered by {@code (createdAt DESC, id DESC)}.
+ * Clients only see it as an opaque Base64 string.
+ *
+ * @param createdAt the creation time of the last returned row
+ * @param id        the id of the last returned row
+ */
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    // Vị trí bắt đầu của trang đầu tiên: lớn hơn mọi bản ghi thực tế
+    public static final KeysetCursor FIRST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor sent by the client. A blank value means the first page.
+     *
+     * @param cursor the opaque cursor
+     * @return the decoded position
+     * @throws ApiException if the cursor was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new ApiException(INVALID_CURSOR.message, INVALID_CURSOR.code, INVALID_CURSOR.status);
+        }
+    }
+}
@@ -2,36 +2,33 @@ package com.sys.kanri.utils;
 
 import com.sys.kanri.dto.ApiErrorResponse;
 import com.sys.kanri.dto.ApiSuccessResponse;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.net.URI;
 import java.time.Instant;
-import java.util.Collections;
 import java.util.Map;
 
-import jakarta.servlet.http.HttpServletRequest;
-
+/**
+ * Builds the response envelopes. Envelopes are created through their constructors and serialized by
+ * the dedicated serializers in {@code com.sys.kanri.dto.serializer}, so no builder or reflection is
+ * involved per response.
+ */
 public class ResponseFactory {
 
-    private static HttpServletRequest currentRequest() {
+    private static final String NO_PATH = "N/A";
+    private static final Map<String, String> NO_ERRORS = Map.of();
+
+    private static String currentPath() {
         ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        return (attrs != null) ? attrs.getRequest() : null;
+        return (attrs != null) ? attrs.getRequest().getRequestURI() : NO_PATH;
     }
 
     public static <T> ResponseEntity<ApiSuccessResponse<T>> success(T data, String message, HttpStatus status) {
-        HttpServletRequest request = currentRequest();
-        String path = (request != null) ? request.getRequestURI() : "N/A";
-
-        ApiSuccessResponse<T> response = ApiSuccessResponse.<T>builder()
-                .timestamp(Instant.now())
-                .status(status.value())
-                .message(message)
-                .data(data)
-                .path(path)
-                .build();
-
+        ApiSuccessResponse<T> response = new ApiSuccessResponse<>(Instant.now(), status.value(), message, data, currentPath());
         return ResponseEntity.status(status).body(response);
     }
 
@@ -39,37 +36,23 @@ public class ResponseFactory {
         return success(data, message, HttpStatus.OK);
     }
 
-    public static ResponseEntity<ApiErrorResponse> error(String code, String message, HttpStatus status) {
-        HttpServletRequest request = currentRequest();
-        String path = (request != null) ? request.getRequestURI() : "N/A";
+    public static <T> ResponseEntity<ApiSuccessResponse<T>> ok(T data, String message, String etag, CacheControl cacheControl) {
+        ApiSuccessResponse<T> response = new ApiSuccessResponse<>(Instant.now(), HttpStatus.OK.value(), message, data, currentPath());
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(response);
+    }
 
-        ApiErrorResponse response = ApiErrorResponse.builder()
-                .timestamp(Instant.now())
-                .status(status.value())
-                .error(status.getReasonPhrase())
-                .message(message)
-                .code(code)
-                .path(path)
-                .errors(Collections.emptyMap())
-                .build();
+    public static <T> ResponseEntity<ApiSuccessResponse<T>> accepted(T data, String message, URI location) {
+        ApiSuccessResponse<T> response = new ApiSuccessResponse<>(Instant.now(), HttpStatus.ACCEPTED.value(), message, data, currentPath());
+        return ResponseEntity.accepted().location(location).body(response);
+    }
 
-        return ResponseEntity.status(status).body(response);
+    public static ResponseEntity<ApiErrorResponse> error(String code, String message, HttpStatus status) {
+        return error(code, message, status, NO_ERRORS);
     }
 
     public static ResponseEntity<ApiErrorResponse> error(String code, String message, HttpStatus status, Map<String, String> errors) {
-        HttpServletRequest request = currentRequest();
-        String path = (request != null) ? request.getRequestURI() : "N/A";
-
-        ApiErrorResponse response = ApiErrorResponse.builder()
-                .timestamp(Instant.now())
-                .status(status.value())
-                .error(status.getReasonPhrase())
-                .message(message)
-                .code(code)
-                .path(path)
-                .errors(errors)
-                .build();
-
+        ApiErrorResponse response = new ApiErrorResponse(Instant.now(), status.value(), status.getReasonPhrase(),
+                message, code, currentPath(), errors);
         return ResponseEntity.status(status).body(response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+-- Schema ban đầu của hệ thống. Idempotent để chạy được cả trên database mới lẫn database
+-- đã được tạo trước đây bởi hibernate ddl-auto (spring.flyway.baseline-version = 0)
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Id sinh từ sequence với pooled optimizer: INCREMENT BY phải bằng allocationSize của entity
+CREATE SEQUENCE IF NOT EXISTS roles_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS members_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS roles
+(
+    id         bigint       NOT NULL PRIMARY KEY,
+    name       varchar(50)  NOT NULL UNIQUE,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    is_active  integer      NOT NULL DEFAULT 1
+);
+
+CREATE TABLE IF NOT EXISTS members
+(
+    id            bigint       NOT NULL PRIMARY KEY,
+    username      varchar(50)  NOT NULL UNIQUE,
+    password      varchar(255) NOT NULL,
+    full_name     varchar(255) NOT NULL,
+    email         varchar(255) NOT NULL UNIQUE,
+    phone         varchar(255),
+    address       varchar(255),
+    gender        varchar(255),
+    image_url     varchar(255),
+    token_version integer      NOT NULL DEFAULT 0,
+    role_id       bigint       NOT NULL REFERENCES roles (id),
+    created_at    timestamp(6),
+    updated_at    timestamp(6),
+    deleted_at    timestamp(6),
+    is_active     integer      NOT NULL DEFAULT 1
+);
+
+-- Database cũ do ddl-auto tạo: bổ sung cột mới và bỏ IDENTITY
+ALTER TABLE members ADD COLUMN IF NOT EXISTS token_version integer NOT NULL DEFAULT 0;
+ALTER TABLE members ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE roles ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('members_seq', GREATEST((SELECT COALESCE(max(id), 0) FROM members), (SELECT last_value FROM members_seq)));
+SELECT setval('roles_seq', GREATEST((SELECT COALESCE(max(id), 0) FROM roles), (SELECT last_value FROM roles_seq)));
+
+-- Phân trang keyset theo (created_at, id)
+CREATE INDEX IF NOT EXISTS idx_members_created_at_id ON members (created_at DESC, id DESC);
+-- Truy vấn thành viên theo role và khóa ngoại
+CREATE INDEX IF NOT EXISTS idx_members_role_id ON members (role_id);
+-- Tìm kiếm theo từ khóa: index trigram phục vụ LIKE '%keyword%' và similarity()
+CREATE INDEX IF NOT EXISTS idx_members_username_trgm ON members USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_members_email_trgm ON members USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_members_full_name_trgm ON members USING gin (lower(full_name) gin_trgm_ops);
+
+-- Dữ liệu role cố định
+INSERT INTO roles (id, name, created_at, updated_at, is_active)
+SELECT nextval('roles_seq'), r.name, now(), now(), 1
+FROM (VALUES ('ADMIN'), ('CUSTOMER'), ('SUPPORT')) AS r(name)
+WHERE NOT EXISTS (SELECT 1 FROM roles WHERE roles.name = r.name);
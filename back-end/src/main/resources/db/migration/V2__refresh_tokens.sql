@@ -0,0 +1,18 @@
+-- Refresh token dạng opaque: chỉ lưu SHA-256 (base64url, 43 ký tự) của token
+CREATE TABLE IF NOT EXISTS refresh_tokens
+(
+    token_hash varchar(43)  NOT NULL PRIMARY KEY,
+    family_id  uuid         NOT NULL,
+    member_id  bigint       NOT NULL REFERENCES members (id) ON DELETE CASCADE,
+    issued_at  timestamp(6) NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    used_at    timestamp(6),
+    revoked_at timestamp(6)
+);
+
+-- Thu hồi cả họ token khi phát hiện dùng lại
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+-- Thu hồi mọi token còn hiệu lực của một thành viên (đổi mật khẩu)
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_member_id ON refresh_tokens (member_id) WHERE revoked_at IS NULL;
+-- Dọn token hết hạn theo lô
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,14 @@
+-- jti của access token đi kèm mỗi refresh token, dùng để thu hồi access token khi logout/đổi mật khẩu
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS access_jti uuid;
+
+-- Access token bị thu hồi trước hạn; dòng chỉ cần giữ đến expires_at của token
+CREATE TABLE IF NOT EXISTS revoked_tokens
+(
+    jti        uuid         NOT NULL PRIMARY KEY,
+    expires_at timestamp(6) NOT NULL,
+    revoked_at timestamp(6) NOT NULL
+);
+
+-- Các instance khác đọc những jti mới bị thu hồi theo revoked_at
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
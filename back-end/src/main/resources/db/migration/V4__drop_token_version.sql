@@ -0,0 +1,2 @@
+-- Refresh token được thu hồi qua refresh_tokens (V2), access token qua revoked_tokens (V3): không còn dùng token_version
+ALTER TABLE members DROP COLUMN IF EXISTS token_version;
@@ -0,0 +1,11 @@
+-- MemberSuggestIndex đồng bộ thay đổi từ instance khác theo updated_at thay vì đọc lại cả bảng
+CREATE INDEX IF NOT EXISTS idx_members_updated_at ON members (updated_at);
+
+-- Nhật ký xóa thành viên; dòng chỉ cần giữ đến khi mọi instance đã đồng bộ (member.suggest.deletion-retention)
+CREATE TABLE IF NOT EXISTS member_deletions
+(
+    member_id  bigint       NOT NULL,
+    deleted_at timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_member_deletions_deleted_at ON member_deletions (deleted_at);
@@ -0,0 +1,140 @@
+package com.sys.kanri.configs;
+
+import com.sys.kanri.controllers.MemberController;
+import com.sys.kanri.dto.response.MemberImportResDto;
+import com.sys.kanri.enums.ImportStatus;
+import com.sys.kanri.security.AccessTokenDenylist;
+import com.sys.kanri.security.JwtAuthenticationFilter;
+import com.sys.kanri.security.JwtPrincipal;
+import com.sys.kanri.security.JwtService;
+import com.sys.kanri.security.PasswordHashingService;
+import com.sys.kanri.security.PrincipalCache;
+import com.sys.kanri.security.VerifiedToken;
+import com.sys.kanri.services.MemberExportService;
+import com.sys.kanri.services.MemberImportService;
+import com.sys.kanri.services.impl.MemberServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs member requests through the real security filter chain and {@link JwtAuthenticationFilter};
+ * only the token parsing and the services behind the controller are mocked.
+ */
+@SpringJUnitWebConfig(SecurityConfigTest.TestConfig.class)
+@TestPropertySource(properties = "security.password.target-hash-time=1ms")
+class SecurityConfigTest {
+
+    private static final String SUPPORT_TOKEN = "support-token";
+    private static final String ADMIN_TOKEN = "admin-token";
+
+    @Configuration
+    @EnableWebMvc
+    @Import({SecurityConfig.class, JwtAuthenticationFilter.class, MemberController.class})
+    static class TestConfig {
+    }
+
+    @MockitoBean
+    private JwtService jwtService;
+    @MockitoBean
+    private PrincipalCache principalCache;
+    @MockitoBean
+    private AccessTokenDenylist accessTokenDenylist;
+    @MockitoBean
+    private PasswordHashingService passwordHashingService;
+    @MockitoBean
+    private MemberServiceImpl memberService;
+    @MockitoBean
+    private MemberExportService memberExportService;
+    @MockitoBean
+    private MemberImportService memberImportService;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        givenToken(SUPPORT_TOKEN, JwtPrincipal.of(2L, "support", "SUPPORT"));
+        givenToken(ADMIN_TOKEN, JwtPrincipal.of(1L, "admin", "ADMIN"));
+    }
+
+    @Test
+    void supportCannotImportMembers() throws Exception {
+        mockMvc.perform(post("/members/import").param("mode", "SUPPORT")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + SUPPORT_TOKEN)
+                        .content("{\"username\":\"support2\"}"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(memberImportService);
+    }
+
+    @Test
+    void supportCannotExportMembers() throws Exception {
+        mockMvc.perform(get("/members/export").header(HttpHeaders.AUTHORIZATION, "Bearer " + SUPPORT_TOKEN))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(memberExportService);
+    }
+
+    @Test
+    void supportCannotReadImportProgress() throws Exception {
+        mockMvc.perform(get("/members/import/" + UUID.randomUUID())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + SUPPORT_TOKEN))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(memberImportService);
+    }
+
+    @Test
+    void supportCanStillReadMembers() throws Exception {
+        when(memberService.getMemberVersion(5L)).thenReturn(LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        mockMvc.perform(get("/members/5").header(HttpHeaders.AUTHORIZATION, "Bearer " + SUPPORT_TOKEN))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void adminCanImportMembers() throws Exception {
+        when(memberImportService.startImport(any(), any(), any())).thenReturn(new MemberImportResDto(
+                UUID.randomUUID(), ImportStatus.QUEUED, null, null, 0, 0, 0, List.of(), false, null));
+
+        mockMvc.perform(post("/members/import")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_TOKEN)
+                        .content("{\"username\":\"customer1\"}"))
+                .andExpect(status().isAccepted());
+    }
+
+    private void givenToken(String token, JwtPrincipal principal) {
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        when(jwtService.parseToken(token))
+                .thenReturn(new VerifiedToken(token, principal.username(), expiration, principal.role(), principal.id()));
+        when(principalCache.get(eq(principal.username()), any())).thenReturn(principal);
+    }
+}
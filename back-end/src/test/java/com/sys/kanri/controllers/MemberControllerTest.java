@@ -0,0 +1,109 @@
+package com.sys.kanri.controllers;
+
+import com.sys.kanri.dto.request.MemberSearchReqDto;
+import com.sys.kanri.dto.response.MemberResDto;
+import com.sys.kanri.dto.response.PaginationResDto;
+import com.sys.kanri.services.MemberExportService;
+import com.sys.kanri.services.MemberImportService;
+import com.sys.kanri.services.MemberService;
+import com.sys.kanri.utils.ETags;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class MemberControllerTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 1, 1, 9, 30, 15, 123_456_000);
+
+    @Mock
+    private MemberService memberService;
+    @Mock
+    private MemberExportService memberExportService;
+    @Mock
+    private MemberImportService memberImportService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new MemberController(memberService, memberExportService, memberImportService))
+                .build();
+    }
+
+    @Test
+    void getMemberReturnsETag() throws Exception {
+        when(memberService.getMemberVersion(42L)).thenReturn(UPDATED_AT);
+        when(memberService.getMemberById(42L)).thenReturn(member(42L, UPDATED_AT));
+
+        mockMvc.perform(get("/members/42"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.member(42L, UPDATED_AT)))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.data.username").value("member42"));
+    }
+
+    @Test
+    void getMemberWithMatchingIfNoneMatchReturns304WithoutLoadingMember() throws Exception {
+        when(memberService.getMemberVersion(42L)).thenReturn(UPDATED_AT);
+
+        mockMvc.perform(get("/members/42").header(HttpHeaders.IF_NONE_MATCH, ETags.member(42L, UPDATED_AT)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.member(42L, UPDATED_AT)))
+                .andExpect(content().string(""));
+
+        verify(memberService, never()).getMemberById(any());
+    }
+
+    @Test
+    void getMemberWithStaleIfNoneMatchReturnsMember() throws Exception {
+        LocalDateTime updatedAgain = UPDATED_AT.plusSeconds(1);
+        when(memberService.getMemberVersion(42L)).thenReturn(updatedAgain);
+        when(memberService.getMemberById(42L)).thenReturn(member(42L, updatedAgain));
+
+        mockMvc.perform(get("/members/42").header(HttpHeaders.IF_NONE_MATCH, ETags.member(42L, UPDATED_AT)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.member(42L, updatedAgain)));
+    }
+
+    @Test
+    void getMembersWithMatchingIfNoneMatchReturns304() throws Exception {
+        PaginationResDto<MemberResDto> page = new PaginationResDto<>(
+                List.of(member(1L, UPDATED_AT), member(2L, UPDATED_AT)), 0, 10, null, null, true, true, false, false);
+        when(memberService.getAllMember(any(MemberSearchReqDto.class))).thenReturn(page);
+
+        mockMvc.perform(get("/members").param("size", "10").header(HttpHeaders.IF_NONE_MATCH, ETags.page(page)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    private static MemberResDto member(Long id, LocalDateTime updatedAt) {
+        MemberResDto member = new MemberResDto();
+        member.setId(id);
+        member.setUsername("member" + id);
+        member.setFullName("Member " + id);
+        member.setEmail("member" + id + "@kanri.sys");
+        member.setRole("CUSTOMER");
+        member.setUpdatedAt(updatedAt);
+        return member;
+    }
+}
@@ -0,0 +1,171 @@
+package com.sys.kanri.security;
+
+import com.sys.kanri.entities.RevokedToken;
+import com.sys.kanri.repositories.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccessTokenDenylistTest {
+
+    // Mỗi thế hệ của bloom filter dài đúng một vòng đời access token
+    private static final Duration ACCESS_TTL = Duration.ofMinutes(1);
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    // Bắt đầu đúng đầu một thế hệ để dễ tính ranh giới
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private SimpleMeterRegistry meterRegistry;
+    private AccessTokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        denylist = denylist(100_000, 0.001);
+    }
+
+    @Test
+    void revokedTokenIsConfirmedOnceAgainstDatabase() {
+        UUID jti = UUID.randomUUID();
+        denylist.revoke(jti, now().plusSeconds(30));
+        when(revokedTokenRepository.existsById(jti)).thenReturn(true);
+
+        assertThat(denylist.isRevoked(token(jti))).isTrue();
+        assertThat(denylist.isRevoked(token(jti))).isTrue();
+
+        verify(revokedTokenRepository, times(1)).existsById(jti);
+        assertThat(meterRegistry.counter("security.token.revoked.rejected").count()).isEqualTo(2);
+    }
+
+    @Test
+    void tokenNeverRevokedDoesNotQueryDatabase() {
+        denylist.revoke(UUID.randomUUID(), now().plusSeconds(30));
+
+        assertThat(denylist.isRevoked(token(UUID.randomUUID()))).isFalse();
+        assertThat(denylist.isRevoked(new VerifiedToken(null, "alice", expiry(), "CUSTOMER", 1L))).isFalse();
+
+        verify(revokedTokenRepository, never()).existsById(any());
+    }
+
+    @Test
+    void falsePositiveIsConfirmedAgainstDatabaseAndAccepted() {
+        // Filter 64 bit nhận 200 jti: gần như mọi bit đều bật nên jti bất kỳ đều trúng filter
+        AccessTokenDenylist saturated = denylist(1, 0.5);
+        for (int i = 0; i < 200; i++) {
+            saturated.revoke(UUID.randomUUID(), now().plusSeconds(30));
+        }
+        UUID innocent = UUID.randomUUID();
+        when(revokedTokenRepository.existsById(innocent)).thenReturn(false);
+
+        assertThat(saturated.isRevoked(token(innocent))).isFalse();
+
+        verify(revokedTokenRepository).existsById(innocent);
+        assertThat(meterRegistry.counter("security.token.revoked.false-positives").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("security.token.revoked.rejected").count()).isZero();
+    }
+
+    @Test
+    void generationIsDroppedOnlyAfterItsTokensHaveExpired() {
+        // Hết hạn sau 30 giây + 1 phút bù: thuộc thế hệ kế tiếp [00:01, 00:02)
+        UUID early = UUID.randomUUID();
+        denylist.revoke(early, now().plusSeconds(30));
+        // Hết hạn sau 100 giây + 1 phút bù: thuộc thế hệ [00:02, 00:03)
+        UUID late = UUID.randomUUID();
+        denylist.revoke(late, now().plusSeconds(100));
+        when(revokedTokenRepository.existsById(early)).thenReturn(true);
+        when(revokedTokenRepository.existsById(late)).thenReturn(true);
+
+        clock.advance(Duration.ofSeconds(119));
+        denylist.poll();
+        assertThat(denylist.isRevoked(token(early))).isTrue();
+
+        // Sang thế hệ [00:02, 00:03): thế hệ của early nằm hoàn toàn trong quá khứ và bị bỏ cả khối
+        clock.advance(Duration.ofSeconds(1));
+        denylist.poll();
+        assertThat(denylist.isRevoked(token(early))).isFalse();
+        assertThat(denylist.isRevoked(token(late))).isTrue();
+
+        verify(revokedTokenRepository, times(1)).existsById(early);
+    }
+
+    @Test
+    void pollPicksUpRevocationsFromOtherInstances() {
+        UUID jti = UUID.randomUUID();
+        when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(new RevokedToken(jti, now().plusMinutes(2), now())));
+        when(revokedTokenRepository.existsById(jti)).thenReturn(true);
+
+        assertThat(denylist.isRevoked(token(jti))).isFalse();
+        denylist.poll();
+
+        assertThat(denylist.isRevoked(token(jti))).isTrue();
+    }
+
+    private AccessTokenDenylist denylist(int expectedInsertions, double falsePositiveRate) {
+        AccessTokenDenylist created = new AccessTokenDenylist(revokedTokenRepository, ACCESS_TTL.toMillis(),
+                expectedInsertions, falsePositiveRate, 1000, meterRegistry, clock);
+        created.load();
+        return created;
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private Date expiry() {
+        return Date.from(clock.instant().plus(ACCESS_TTL));
+    }
+
+    private VerifiedToken token(UUID jti) {
+        return new VerifiedToken(jti.toString(), "alice", expiry(), "CUSTOMER", 1L);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
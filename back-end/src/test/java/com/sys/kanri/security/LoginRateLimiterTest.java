@@ -0,0 +1,132 @@
+package com.sys.kanri.security;
+
+import com.sys.kanri.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTest {
+
+    // 5 lần mỗi phút theo username: một token được nạp lại sau mỗi 12 giây
+    private static final int USERNAME_CAPACITY = 5;
+    private static final Duration EMISSION_INTERVAL = Duration.ofSeconds(12);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = limiter(true);
+    }
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        for (int i = 0; i < USERNAME_CAPACITY; i++) {
+            assertThat(limiter.tryAcquire("alice", "10.0.0.1")).as("attempt %d", i + 1).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() {
+        exhaust("alice");
+
+        advance(EMISSION_INTERVAL.minusNanos(1));
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isFalse();
+
+        advance(Duration.ofNanos(1));
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void refillsWholeBurstAfterPeriod() {
+        exhaust("alice");
+
+        advance(EMISSION_INTERVAL.multipliedBy(USERNAME_CAPACITY));
+
+        for (int i = 0; i < USERNAME_CAPACITY; i++) {
+            assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isTrue();
+        }
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void rejectionCarriesTimeUntilNextToken() {
+        exhaust("alice");
+
+        assertThatThrownBy(() -> limiter.check("alice", "10.0.0.1"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(e.getRetryAfter()).isEqualTo(EMISSION_INTERVAL);
+                });
+
+        advance(Duration.ofSeconds(5));
+        assertThatThrownBy(() -> limiter.check("alice", "10.0.0.1"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(7)));
+    }
+
+    @Test
+    void rejectedAttemptsDoNotConsumeUsernameTokens() {
+        exhaust("alice");
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("alice", "10.0.0.1");
+        }
+
+        advance(EMISSION_INTERVAL);
+
+        assertThat(limiter.tryAcquire("alice", "10.0.0.1")).isTrue();
+    }
+
+    @Test
+    void keysAreCaseInsensitiveAndIndependent() {
+        exhaust("alice");
+
+        assertThat(limiter.tryAcquire("ALICE ", "10.0.0.1")).isFalse();
+        assertThat(limiter.tryAcquire("bob", "10.0.0.1")).isTrue();
+    }
+
+    @Test
+    void limitsClientIpAcrossUsernames() {
+        // Bucket theo IP cho phép 20 lần mỗi phút, dù mỗi lần dùng một username khác nhau
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire("user" + i, "10.0.0.2")).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire("another", "10.0.0.2")).isFalse();
+        assertThat(limiter.tryAcquire("another", "10.0.0.3")).isTrue();
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        LoginRateLimiter disabled = limiter(false);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(disabled.tryAcquire("alice", "10.0.0.1")).isTrue();
+        }
+    }
+
+    private LoginRateLimiter limiter(boolean enabled) {
+        return new LoginRateLimiter(enabled, USERNAME_CAPACITY, Duration.ofMinutes(1), 20, Duration.ofMinutes(1),
+                1000, new SimpleMeterRegistry(), clock::get);
+    }
+
+    private void exhaust(String username) {
+        for (int i = 0; i < USERNAME_CAPACITY; i++) {
+            assertThat(limiter.tryAcquire(username, "10.0.0.1")).isTrue();
+        }
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
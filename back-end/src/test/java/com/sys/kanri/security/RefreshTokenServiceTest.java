@@ -0,0 +1,289 @@
+package com.sys.kanri.security;
+
+import com.sys.kanri.entities.Member;
+import com.sys.kanri.entities.RefreshToken;
+import com.sys.kanri.exceptions.ApiException;
+import com.sys.kanri.repositories.RefreshTokenRepository;
+import com.sys.kanri.repositories.projections.IssuedAccessTokenView;
+import com.sys.kanri.repositories.projections.RefreshTokenView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.sys.kanri.enums.ErrorCode.REFRESH_TOKEN_INVALID;
+import static com.sys.kanri.enums.ErrorCode.REFRESH_TOKEN_MISSING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    private static final long ACCESS_TTL_MILLIS = 3_600_000L;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private AccessTokenDenylist accessTokenDenylist;
+
+    private RefreshTokenService service;
+    private final Member member = Member.builder().id(7L).username("alice").build();
+
+    @BeforeEach
+    void setUp() {
+        service = new RefreshTokenService(refreshTokenRepository, entityManager, accessTokenDenylist,
+                ACCESS_TTL_MILLIS, 604_800_000L, 1000, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void rotateIssuesNewTokenInSameFamily() {
+        String first = service.issue(member, UUID.randomUUID());
+        RefreshToken stored = lastPersisted();
+        when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any())).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = service.rotate(first, UUID.randomUUID());
+
+        RefreshToken next = lastPersisted();
+        assertThat(rotation.username()).isEqualTo("alice");
+        assertThat(rotation.refreshToken()).isNotEqualTo(first);
+        assertThat(next.getTokenHash()).isEqualTo(JwtService.digest(rotation.refreshToken()));
+        assertThat(next.getFamilyId()).isEqualTo(stored.getFamilyId());
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    void rotatedTokenCannotBeReplayed() {
+        String first = service.issue(member, UUID.randomUUID());
+        RefreshToken stored = lastPersisted();
+        // Lần đầu đánh dấu được, lần sau token đã dùng nên update có điều kiện không khớp dòng nào
+        when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any())).thenReturn(1, 0);
+        service.rotate(first, UUID.randomUUID());
+        when(refreshTokenRepository.findViewByTokenHash(stored.getTokenHash()))
+                .thenReturn(Optional.of(view(stored, LocalDateTime.now(), null)));
+
+        assertThatThrownBy(() -> service.rotate(first, UUID.randomUUID()))
+                .isInstanceOfSatisfying(ApiException.class, e -> {
+                    assertThat(e.getCode()).isEqualTo(REFRESH_TOKEN_INVALID.code);
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.FORBIDDEN);
+                });
+        verify(refreshTokenRepository).revokeFamily(eq(stored.getFamilyId()), any());
+    }
+
+    @Test
+    void reuseRevokesWholeFamilyAndItsAccessTokens() {
+        UUID firstAccessJti = UUID.randomUUID();
+        UUID secondAccessJti = UUID.randomUUID();
+        String first = service.issue(member, firstAccessJti);
+        RefreshToken stored = lastPersisted();
+        when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any())).thenReturn(1, 0);
+        RefreshTokenService.Rotation legitimate = service.rotate(first, secondAccessJti);
+
+        // Kẻ tấn công dùng lại token đầu tiên sau khi chủ token đã đổi
+        when(refreshTokenRepository.findViewByTokenHash(stored.getTokenHash()))
+                .thenReturn(Optional.of(view(stored, LocalDateTime.now(), null)));
+        when(refreshTokenRepository.findAccessTokensByFamilyId(eq(stored.getFamilyId()), any()))
+                .thenReturn(List.of(issued(firstAccessJti), issued(secondAccessJti)));
+        assertThatThrownBy(() -> service.rotate(first, UUID.randomUUID())).isInstanceOf(ApiException.class);
+
+        // Token mới nhất của cùng họ cũng bị từ chối, không cần truy vấn DB
+        assertThatThrownBy(() -> service.rotate(legitimate.refreshToken(), UUID.randomUUID()))
+                .isInstanceOfSatisfying(ApiException.class,
+                        e -> assertThat(e.getCode()).isEqualTo(REFRESH_TOKEN_INVALID.code));
+        verify(refreshTokenRepository, never()).markUsed(eq(JwtService.digest(legitimate.refreshToken())), any());
+        verify(refreshTokenRepository).revokeFamily(eq(stored.getFamilyId()), any());
+        verify(accessTokenDenylist).revoke(eq(firstAccessJti), any());
+        verify(accessTokenDenylist).revoke(eq(secondAccessJti), any());
+    }
+
+    @Test
+    void tokenRevokedOnAnotherInstanceIsRejectedWithoutMarkingUsed() {
+        String presented = "token-issued-elsewhere";
+        RefreshToken stored = RefreshToken.builder()
+                .tokenHash(JwtService.digest(presented))
+                .familyId(UUID.randomUUID())
+                .memberId(member.getId())
+                .issuedAt(LocalDateTime.now().minusMinutes(5))
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build();
+        when(refreshTokenRepository.findViewByTokenHash(stored.getTokenHash()))
+                .thenReturn(Optional.of(view(stored, null, LocalDateTime.now())));
+
+        assertThatThrownBy(() -> service.rotate(presented, UUID.randomUUID())).isInstanceOf(ApiException.class);
+        verify(refreshTokenRepository, never()).markUsed(any(), any());
+    }
+
+    @Test
+    void tokenRevokedAfterBeingIndexedIsNotCountedAsReuse() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service = new RefreshTokenService(refreshTokenRepository, entityManager, accessTokenDenylist,
+                ACCESS_TTL_MILLIS, 604_800_000L, 1000, 100, meterRegistry);
+        String presented = service.issue(member, UUID.randomUUID());
+        RefreshToken stored = lastPersisted();
+        // Logout trên instance khác: dòng đã bị thu hồi nhưng index của instance này vẫn coi token là hợp lệ
+        when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any())).thenReturn(0);
+        when(refreshTokenRepository.findViewByTokenHash(stored.getTokenHash()))
+                .thenReturn(Optional.of(view(stored, null, LocalDateTime.now())));
+
+        assertThatThrownBy(() -> service.rotate(presented, UUID.randomUUID()))
+                .isInstanceOfSatisfying(ApiException.class,
+                        e -> assertThat(e.getCode()).isEqualTo(REFRESH_TOKEN_INVALID.code));
+        assertThat(meterRegistry.counter("security.refresh-token.reuse").count()).isZero();
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+        verify(accessTokenDenylist, never()).revoke(any(), any());
+    }
+
+    @Test
+    void reuseIsCounted() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service = new RefreshTokenService(refreshTokenRepository, entityManager, accessTokenDenylist,
+                ACCESS_TTL_MILLIS, 604_800_000L, 1000, 100, meterRegistry);
+        String presented = service.issue(member, UUID.randomUUID());
+        RefreshToken stored = lastPersisted();
+        // Đã được đổi trên instance khác, họ token vẫn còn hiệu lực: đây mới là dùng lại
+        when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any())).thenReturn(0);
+        when(refreshTokenRepository.findViewByTokenHash(stored.getTokenHash()))
+                .thenReturn(Optional.of(view(stored, LocalDateTime.now(), null)));
+
+        assertThatThrownBy(() -> service.rotate(presented, UUID.randomUUID())).isInstanceOf(ApiException.class);
+        assertThat(meterRegistry.counter("security.refresh-token.reuse").count()).isEqualTo(1);
+        verify(refreshTokenRepository).revokeFamily(eq(stored.getFamilyId()), any());
+    }
+
+    @Test
+    void missingTokenIsUnauthorized() {
+        assertThatThrownBy(() -> service.rotate(null, UUID.randomUUID()))
+                .isInstanceOfSatisfying(ApiException.class, e -> {
+                    assertThat(e.getCode()).isEqualTo(REFRESH_TOKEN_MISSING.code);
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED);
+                });
+    }
+
+    @Test
+    void revokeAllRejectsTokensIssuedBefore() {
+        String first = service.issue(member, UUID.randomUUID());
+
+        service.revokeAll(member.getId());
+
+        assertThatThrownBy(() -> service.rotate(first, UUID.randomUUID())).isInstanceOf(ApiException.class);
+        verify(refreshTokenRepository).revokeAllByMemberId(eq(member.getId()), any());
+        verify(refreshTokenRepository, never()).markUsed(any(), any());
+    }
+
+    @Test
+    void revokeAllTakesEffectOnlyAfterCommit() {
+        String first = service.issue(member, UUID.randomUUID());
+        RefreshToken stored = lastPersisted();
+        when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any())).thenReturn(1);
+
+        // Transaction đổi mật khẩu bị rollback: afterCommit không được gọi
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.revokeAll(member.getId());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(service.rotate(first, UUID.randomUUID()).username()).isEqualTo("alice");
+    }
+
+    @Test
+    void revokeAllAppliesWatermarkOnCommit() {
+        String first = service.issue(member, UUID.randomUUID());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.revokeAll(member.getId());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThatThrownBy(() -> service.rotate(first, UUID.randomUUID())).isInstanceOf(ApiException.class);
+        verify(refreshTokenRepository, never()).markUsed(any(), any());
+    }
+
+    private RefreshToken lastPersisted() {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(entityManager, atLeastOnce()).persist(captor.capture());
+        return captor.getValue();
+    }
+
+    private RefreshTokenView view(RefreshToken token, LocalDateTime usedAt, LocalDateTime revokedAt) {
+        return new RefreshTokenView() {
+            @Override
+            public String getTokenHash() {
+                return token.getTokenHash();
+            }
+
+            @Override
+            public UUID getFamilyId() {
+                return token.getFamilyId();
+            }
+
+            @Override
+            public Long getMemberId() {
+                return token.getMemberId();
+            }
+
+            @Override
+            public String getUsername() {
+                return member.getUsername();
+            }
+
+            @Override
+            public LocalDateTime getIssuedAt() {
+                return token.getIssuedAt();
+            }
+
+            @Override
+            public LocalDateTime getExpiresAt() {
+                return token.getExpiresAt();
+            }
+
+            @Override
+            public LocalDateTime getUsedAt() {
+                return usedAt;
+            }
+
+            @Override
+            public LocalDateTime getRevokedAt() {
+                return revokedAt;
+            }
+        };
+    }
+
+    private static IssuedAccessTokenView issued(UUID jti) {
+        LocalDateTime issuedAt = LocalDateTime.now();
+        return new IssuedAccessTokenView() {
+            @Override
+            public UUID getAccessJti() {
+                return jti;
+            }
+
+            @Override
+            public LocalDateTime getIssuedAt() {
+                return issuedAt;
+            }
+        };
+    }
+}
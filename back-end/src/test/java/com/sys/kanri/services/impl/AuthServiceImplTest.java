@@ -0,0 +1,61 @@
+package com.sys.kanri.services.impl;
+
+import com.sys.kanri.exceptions.ApiException;
+import com.sys.kanri.security.JwtService;
+import com.sys.kanri.security.PrincipalCache;
+import com.sys.kanri.security.RefreshTokenService;
+import com.sys.kanri.services.MemberService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceImplTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+    @Mock
+    private MemberService memberService;
+    @Mock
+    private JwtService jwtService;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        PrincipalCache principalCache = new PrincipalCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        authService = new AuthServiceImpl(authenticationManager, memberService, jwtService, refreshTokenService, principalCache);
+    }
+
+    @Test
+    void refreshForDeletedMemberIsUnauthorized() {
+        when(refreshTokenService.rotate(eq("presented"), any()))
+                .thenReturn(new RefreshTokenService.Rotation("rotated", "alice"));
+        when(memberService.loadPrincipal("alice")).thenThrow(new UsernameNotFoundException("alice"));
+
+        assertThatThrownBy(() -> authService.refreshToken("presented"))
+                .isInstanceOfSatisfying(ApiException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED));
+        // Token vừa được đổi không còn dùng được
+        verify(refreshTokenService).revoke("rotated");
+        verify(jwtService, never()).generateAccessToken(any(), any(), any());
+    }
+}
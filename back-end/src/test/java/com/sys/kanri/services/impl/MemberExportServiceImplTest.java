@@ -0,0 +1,104 @@
+package com.sys.kanri.services.impl;
+
+import com.sys.kanri.enums.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MemberExportServiceImplTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Statement statement;
+    @Mock
+    private ResultSet resultSet;
+
+    private MemberExportServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        service = new MemberExportServiceImpl(dataSource, jsonMapper, 1000);
+    }
+
+    @Test
+    void ndjsonTerminatesEveryRecordWithNewline() throws Exception {
+        givenTwoMembers();
+
+        String body = export(ExportFormat.NDJSON);
+
+        // Bản ghi cuối cũng phải có '\n' để nối file (cat a.ndjson b.ndjson) không dính hai bản ghi
+        assertThat(body).endsWith("\n");
+        String[] lines = body.split("\n", -1);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[2]).isEmpty();
+        JsonNode first = jsonMapper.readTree(lines[0]);
+        JsonNode second = jsonMapper.readTree(lines[1]);
+        assertThat(first.get("username").asString()).isEqualTo("alice");
+        assertThat(first.get("active").asBoolean()).isTrue();
+        assertThat(second.get("username").asString()).isEqualTo("bob");
+        assertThat(second.get("fullName").asString()).isEqualTo("Bob, \"B\"");
+    }
+
+    @Test
+    void ndjsonOfNoMembersIsEmpty() throws Exception {
+        when(resultSet.next()).thenReturn(false);
+
+        assertThat(export(ExportFormat.NDJSON)).isEmpty();
+    }
+
+    @Test
+    void csvTerminatesEveryRecordWithNewline() throws Exception {
+        givenTwoMembers();
+
+        String body = export(ExportFormat.CSV);
+
+        assertThat(body).endsWith("\n");
+        assertThat(body.split("\n")).containsExactly(
+                "id,username,email,fullName,phone,address,gender,imageUrl,active,role,createdAt",
+                "1,alice,alice@kanri.sys,Alice,,,,,true,CUSTOMER,2026-01-01T09:00",
+                "2,bob,bob@kanri.sys,\"Bob, \"\"B\"\"\",,,,,true,CUSTOMER,2026-01-01T09:00");
+    }
+
+    private void givenTwoMembers() throws Exception {
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getLong("id")).thenReturn(1L, 2L);
+        when(resultSet.getString("username")).thenReturn("alice", "bob");
+        when(resultSet.getString("email")).thenReturn("alice@kanri.sys", "bob@kanri.sys");
+        when(resultSet.getString("full_name")).thenReturn("Alice", "Bob, \"B\"");
+        when(resultSet.getInt("is_active")).thenReturn(1);
+        when(resultSet.getString("role")).thenReturn("CUSTOMER");
+        when(resultSet.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(LocalDateTime.of(2026, 1, 1, 9, 0)));
+    }
+
+    private String export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportMembers(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
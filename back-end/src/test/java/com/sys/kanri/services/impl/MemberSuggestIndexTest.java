@@ -0,0 +1,100 @@
+package com.sys.kanri.services.impl;
+
+import com.sys.kanri.dto.response.MemberSuggestionResDto;
+import com.sys.kanri.repositories.MemberRepository;
+import com.sys.kanri.repositories.projections.MemberSuggestView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MemberSuggestIndexTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    private MemberSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MemberSuggestIndex(memberRepository, new SimpleMeterRegistry(), 1000, Duration.ofDays(1));
+        when(memberRepository.streamSuggestViews()).thenReturn(Stream.of(
+                view(1L, "alice", "Alice Nguyen"),
+                view(2L, "bob", "Bob Tran")));
+        index.warmUp();
+    }
+
+    @Test
+    void syncAppliesChangesMadeOnOtherInstances() {
+        // Instance khác tạo "alicia", đổi tên bob và xóa alice
+        when(memberRepository.findSuggestViewsUpdatedAfter(any())).thenReturn(List.of(
+                view(3L, "alicia", "Alicia Le"),
+                view(2L, "bob", "Robert Tran")));
+        when(memberRepository.findIdsDeletedAfter(any())).thenReturn(List.of(1L));
+
+        index.sync();
+
+        assertThat(index.suggest("ali", 10)).extracting(MemberSuggestionResDto::getUsername).containsExactly("alicia");
+        assertThat(index.suggest("robert", 10)).extracting(MemberSuggestionResDto::getId).containsExactly(2L);
+        assertThat(index.suggest("bob tran", 10)).isEmpty();
+    }
+
+    @Test
+    void syncDoesNotReadTheWholeTable() {
+        when(memberRepository.findSuggestViewsUpdatedAfter(any())).thenReturn(List.of());
+        when(memberRepository.findIdsDeletedAfter(any())).thenReturn(List.of());
+
+        index.sync();
+        index.sync();
+
+        verify(memberRepository, times(1)).streamSuggestViews();
+    }
+
+    @Test
+    void syncedChangesSurviveCompaction() {
+        when(memberRepository.findSuggestViewsUpdatedAfter(any())).thenReturn(List.of(view(3L, "alicia", "Alicia Le")));
+        when(memberRepository.findIdsDeletedAfter(any())).thenReturn(List.of(1L));
+
+        index.sync();
+        index.compact();
+
+        assertThat(index.suggest("ali", 10)).extracting(MemberSuggestionResDto::getId).containsExactly(3L);
+    }
+
+    private static MemberSuggestView view(Long id, String username, String fullName) {
+        return new MemberSuggestView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return username + "@kanri.sys";
+            }
+
+            @Override
+            public String getFullName() {
+                return fullName;
+            }
+        };
+    }
+}